@@ -0,0 +1,91 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sources benchmarks are run on. Input name is either "testdata" for all parser and resolve test files,
+ * or "synthetic-N" for a single generated file with N pairs of top-level forms.
+ */
+public class BenchmarkInputs {
+
+  public static final String TESTDATA = "testdata";
+  public static final String SYNTHETIC_PREFIX = "synthetic-";
+
+  private static final long SEED = 42;
+
+  public static List<String> load(String input) throws IOException {
+    final List<String> texts = new ArrayList<String>();
+    if (TESTDATA.equals(input)) {
+      collectFiles(new File("testdata/parser"), ".test", texts);
+      collectFiles(new File("testdata/resolve"), ".clj", texts);
+    } else if (input.startsWith(SYNTHETIC_PREFIX)) {
+      texts.add(generate(Integer.parseInt(input.substring(SYNTHETIC_PREFIX.length()))));
+    } else {
+      throw new IllegalArgumentException("Unknown benchmark input: " + input);
+    }
+    if (texts.isEmpty()) {
+      throw new IllegalStateException("No sources found for " + input + ", benchmarks should be run from the project directory");
+    }
+    return texts;
+  }
+
+  /**
+   * Generates namespace with functions of typical shape (docstring, destructuring, interop, anonymous functions)
+   * alternated with nested data definitions
+   */
+  public static String generate(int count) {
+    final Random random = new Random(SEED);
+    final StringBuilder builder = new StringBuilder();
+    builder.append("(ns bench.synthetic\n")
+        .append("  (:require [clojure.string :as str])\n")
+        .append("  (:import (java.util ArrayList HashMap)))\n\n");
+    for (int i = 0; i < count; i++) {
+      builder.append("(defn fn-").append(i).append("\n")
+          .append("  \"Function number ").append(i).append(".\"\n")
+          .append("  [x y & more]\n")
+          .append("  (let [a (inc x)\n")
+          .append("        {:keys [b c]} (hash-map :b y :c ").append(random.nextInt(1000)).append(")\n")
+          .append("        v [a b c \"s\" \\c ").append(random.nextDouble()).append("]]\n")
+          .append("    (if (> a b)\n")
+          .append("      (str/join \",\" (map #(* % 2) v))\n")
+          .append("      (.size (doto (ArrayList.) (.add fn-").append(random.nextInt(i + 1)).append("))))))\n\n");
+      builder.append("(def config-").append(i).append(" {:id ").append(i)
+          .append(" :name \"name-").append(i).append("\"")
+          .append(" :tags #{:a :b}")
+          .append(" :nested {:depth [1 2 [3 ").append(random.nextInt(100)).append("]]}})\n\n");
+    }
+    return builder.toString();
+  }
+
+  private static void collectFiles(File dir, String extension, List<String> texts) throws IOException {
+    final File[] files = dir.listFiles();
+    if (files == null) return;
+    for (File file : files) {
+      if (file.isDirectory()) {
+        collectFiles(file, extension, texts);
+      } else if (file.getName().endsWith(extension)) {
+        texts.add(readFile(file));
+      }
+    }
+  }
+
+  private static String readFile(File file) throws IOException {
+    final StringBuilder contents = new StringBuilder();
+    final BufferedReader input = new BufferedReader(new FileReader(file));
+    try {
+      String line;
+      while ((line = input.readLine()) != null) {
+        contents.append(line).append("\n");
+      }
+    } finally {
+      input.close();
+    }
+    return contents.toString();
+  }
+}
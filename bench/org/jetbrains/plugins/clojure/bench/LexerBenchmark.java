@@ -0,0 +1,42 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import com.intellij.lexer.Lexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenization of sources by _ClojureLexer, no IDEA application is needed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LexerBenchmark {
+
+  @Param({BenchmarkInputs.TESTDATA, "synthetic-1000", "synthetic-10000"})
+  public String input;
+
+  private List<String> myTexts;
+
+  @Setup
+  public void setUp() throws IOException {
+    myTexts = BenchmarkInputs.load(input);
+  }
+
+  @Benchmark
+  public int tokenize() {
+    final Lexer lexer = new ClojureFlexLexer();
+    int tokens = 0;
+    for (String text : myTexts) {
+      lexer.start(text);
+      while (lexer.getTokenType() != null) {
+        tokens++;
+        lexer.advance();
+      }
+    }
+    return tokens;
+  }
+}
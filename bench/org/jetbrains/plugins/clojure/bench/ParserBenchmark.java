@@ -0,0 +1,24 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.PsiFile;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Building of AST by ClojureParser, including creation of PSI file
+ */
+public class ParserBenchmark extends PsiBenchmarkBase {
+
+  @Benchmark
+  public int parse() {
+    return runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        int nodes = 0;
+        for (PsiFile file : createFiles()) {
+          nodes += file.getNode().getChildren(null).length;
+        }
+        return nodes;
+      }
+    });
+  }
+}
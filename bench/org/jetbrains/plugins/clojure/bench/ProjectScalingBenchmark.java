@@ -0,0 +1,179 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.builders.JavaModuleFixtureBuilder;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import com.intellij.util.ui.UIUtil;
+import org.jetbrains.plugins.clojure.ClojureLoader;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ns.ClojureNsDependencyGraph;
+import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
+import org.jetbrains.plugins.clojure.psi.stubs.ClojureFileStubBuilder;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsDependencyIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsFormReader;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureQualifiedReferenceIndex;
+import org.jetbrains.plugins.clojure.util.SyntheticProjectGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costs, which grow with the size of the project, on projects written by SyntheticProjectGenerator to a source root:
+ * index data of all files, NamespaceUtil and the dependency graph over all namespaces, and resolve in sample files.
+ * Caches are dropped before every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectScalingBenchmark {
+
+  private static final String MOCK_CLOJURE_LIB = "testdata/mockClojureLib";
+  private static final int SAMPLE_FILES = 20;
+
+  @Param({"100", "1000", "9000"})
+  public int namespaces;
+
+  private SyntheticProjectGenerator myGenerator;
+  private File myRoot;
+  private final List<String> myTexts = new ArrayList<String>();
+  private final List<ClSymbol> mySymbols = new ArrayList<ClSymbol>();
+  private IdeaProjectTestFixture myFixture;
+
+  @Setup(Level.Trial)
+  public void setUpProject() throws Exception {
+    myGenerator = new SyntheticProjectGenerator().setNamespaces(namespaces);
+    myRoot = FileUtil.createTempDirectory("clojure-scaling", null);
+    final List<File> files = myGenerator.generate(myRoot);
+    for (File file : files) {
+      myTexts.add(FileUtil.loadFile(file));
+    }
+
+    final Exception[] exception = new Exception[1];
+    UIUtil.invokeAndWaitIfNeeded(new Runnable() {
+      public void run() {
+        try {
+          final TestFixtureBuilder<IdeaProjectTestFixture> builder = IdeaTestFixtureFactory.getFixtureFactory().createFixtureBuilder();
+          final JavaModuleFixtureBuilder moduleBuilder = builder.addModule(JavaModuleFixtureBuilder.class);
+          moduleBuilder.addContentRoot(myRoot.getPath()).addSourceRoot("");
+          moduleBuilder.addLibraryJars("clojureLib", new File(MOCK_CLOJURE_LIB).getCanonicalPath(), "clojure.jar", "clojure-contrib.jar");
+          myFixture = builder.getFixture();
+          myFixture.setUp();
+          ClojureLoader.loadClojure();
+        } catch (Exception e) {
+          exception[0] = e;
+        }
+      }
+    });
+    if (exception[0] != null) throw exception[0];
+
+    final int step = Math.max(1, files.size() / SAMPLE_FILES);
+    PsiBenchmarkBase.runReadAction(new Computable<Object>() {
+      public Object compute() {
+        for (int i = 0; i < files.size(); i += step) {
+          final VirtualFile vFile = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(files.get(i));
+          final PsiFile file = vFile == null ? null : PsiManager.getInstance(getProject()).findFile(vFile);
+          if (file == null) throw new IllegalStateException("No PSI for " + files.get(i));
+          mySymbols.addAll(PsiTreeUtil.collectElementsOfType(file, ClSymbol.class));
+        }
+        return null;
+      }
+    });
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownProject() throws Exception {
+    final Exception[] exception = new Exception[1];
+    UIUtil.invokeAndWaitIfNeeded(new Runnable() {
+      public void run() {
+        try {
+          myFixture.tearDown();
+        } catch (Exception e) {
+          exception[0] = e;
+        }
+      }
+    });
+    FileUtil.delete(myRoot);
+    if (exception[0] != null) throw exception[0];
+  }
+
+  private Project getProject() {
+    return myFixture.getProject();
+  }
+
+  /**
+   * What the stub and file-based indexers compute for every file: stub trees, qualified references and ns dependencies
+   */
+  @Benchmark
+  public int indexData() {
+    return PsiBenchmarkBase.runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        int entries = 0;
+        for (String text : myTexts) {
+          final PsiFile file = PsiFileFactory.getInstance(getProject()).createFileFromText("bench.clj",
+              ClojureFileType.CLOJURE_FILE_TYPE, text);
+          entries += new ClojureFileStubBuilder().buildStubTree(file).getChildrenStubs().size();
+          entries += ClojureQualifiedReferenceIndex.findReferences(text).size();
+          for (ClojureNsFormReader.NsForm form : ClojureNsFormReader.read(text)) {
+            entries += ClojureNsDependencyIndex.findDependencies(form.getClauses()).size();
+          }
+        }
+        return entries;
+      }
+    });
+  }
+
+  @Benchmark
+  public int namespaceUtil() {
+    return PsiBenchmarkBase.runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        PsiBenchmarkBase.dropCaches(getProject());
+        int elements = NamespaceUtil.getTopLevelNamespaces(getProject()).length;
+        for (int i = 0; i < namespaces; i++) {
+          elements += NamespaceUtil.getDeclaredElements(myGenerator.getNamespaceName(i), getProject()).length;
+        }
+        return elements;
+      }
+    });
+  }
+
+  @Benchmark
+  public int dependencyGraph() {
+    return PsiBenchmarkBase.runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        PsiBenchmarkBase.dropCaches(getProject());
+        return ClojureNsDependencyGraph.getInstance(getProject()).getTopologicalOrder().size();
+      }
+    });
+  }
+
+  /**
+   * All symbols of SAMPLE_FILES files spread over the project
+   */
+  @Benchmark
+  public int resolve() {
+    return PsiBenchmarkBase.runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        PsiBenchmarkBase.dropCaches(getProject());
+        int resolved = 0;
+        for (ClSymbol symbol : mySymbols) {
+          resolved += symbol.multiResolve(false).length;
+        }
+        return resolved;
+      }
+    });
+  }
+}
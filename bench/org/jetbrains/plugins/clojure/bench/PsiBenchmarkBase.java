@@ -0,0 +1,135 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModifiableRootModel;
+import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.OrderRootType;
+import com.intellij.openapi.roots.libraries.Library;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.impl.PsiModificationTrackerImpl;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.util.ui.UIUtil;
+import org.jetbrains.plugins.clojure.ClojureLoader;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base state for benchmarks on PSI: light project fixture with mock Clojure library attached,
+ * as in resolve tests, and benchmark sources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class PsiBenchmarkBase {
+
+  private static final String CLOJURE_LIB = "testdata/mockClojureLib/clojure.jar";
+  private static final String CLOJURE_CONTRIB_LIB = "testdata/mockClojureLib/clojure-contrib.jar";
+
+  @Param({BenchmarkInputs.TESTDATA, "synthetic-1000"})
+  public String input;
+
+  protected List<String> myTexts;
+  private IdeaProjectTestFixture myFixture;
+
+  @Setup(Level.Trial)
+  public void setUpFixture() throws Exception {
+    myTexts = BenchmarkInputs.load(input);
+    final Exception[] exception = new Exception[1];
+    UIUtil.invokeAndWaitIfNeeded(new Runnable() {
+      public void run() {
+        try {
+          myFixture = IdeaTestFixtureFactory.getFixtureFactory().createLightFixtureBuilder().getFixture();
+          myFixture.setUp();
+          ClojureLoader.loadClojure();
+          attachClojureLibrary();
+        } catch (Exception e) {
+          exception[0] = e;
+        }
+      }
+    });
+    if (exception[0] != null) throw exception[0];
+    setUp();
+  }
+
+  /**
+   * Prepares the state of particular benchmark, called once the fixture is set up
+   */
+  protected void setUp() throws Exception {
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDownFixture() throws Exception {
+    final Exception[] exception = new Exception[1];
+    UIUtil.invokeAndWaitIfNeeded(new Runnable() {
+      public void run() {
+        try {
+          myFixture.tearDown();
+        } catch (Exception e) {
+          exception[0] = e;
+        }
+      }
+    });
+    if (exception[0] != null) throw exception[0];
+  }
+
+  protected Project getProject() {
+    return myFixture.getProject();
+  }
+
+  protected List<PsiFile> createFiles() {
+    return runReadAction(new Computable<List<PsiFile>>() {
+      public List<PsiFile> compute() {
+        final List<PsiFile> files = new ArrayList<PsiFile>();
+        int i = 0;
+        for (String text : myTexts) {
+          files.add(PsiFileFactory.getInstance(getProject()).createFileFromText("bench" + i++ + ".clj",
+              ClojureFileType.CLOJURE_FILE_TYPE, text));
+        }
+        return files;
+      }
+    });
+  }
+
+  /**
+   * Drops resolve caches and all the values cached until the next PSI change: tables of files and namespaces,
+   * scope trees and project-level symbol tables
+   */
+  protected void dropCaches() {
+    dropCaches(getProject());
+  }
+
+  protected static void dropCaches(Project project) {
+    final PsiManager manager = PsiManager.getInstance(project);
+    manager.dropResolveCaches();
+    ((PsiModificationTrackerImpl) manager.getModificationTracker()).incCounter();
+  }
+
+  protected static <T> T runReadAction(Computable<T> computable) {
+    return ApplicationManager.getApplication().runReadAction(computable);
+  }
+
+  private void attachClojureLibrary() throws IOException {
+    final ModifiableRootModel rootModel = ModuleRootManager.getInstance(myFixture.getModule()).getModifiableModel();
+    final Library.ModifiableModel libModel = rootModel.getModuleLibraryTable().createLibrary("clojureLib").getModifiableModel();
+    libModel.addRoot(VfsUtil.getUrlForLibraryRoot(new File(CLOJURE_LIB).getCanonicalFile()), OrderRootType.CLASSES);
+    libModel.addRoot(VfsUtil.getUrlForLibraryRoot(new File(CLOJURE_CONTRIB_LIB).getCanonicalFile()), OrderRootType.CLASSES);
+    ApplicationManager.getApplication().runWriteAction(new Runnable() {
+      public void run() {
+        libModel.commit();
+        rootModel.commit();
+      }
+    });
+  }
+}
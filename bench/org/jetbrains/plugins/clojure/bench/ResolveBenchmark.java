@@ -0,0 +1,63 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.symbols.CompleteSymbol;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolve of all symbols in sources with cold caches, and completion variants for some of them.
+ * Every invocation starts with a new PSI modification count, as after an edit.
+ */
+public class ResolveBenchmark extends PsiBenchmarkBase {
+
+  private static final int COMPLETION_SAMPLES = 50;
+
+  private final List<ClSymbol> mySymbols = new ArrayList<ClSymbol>();
+
+  @Override
+  protected void setUp() {
+    runReadAction(new Computable<Object>() {
+      public Object compute() {
+        for (PsiFile file : createFiles()) {
+          mySymbols.addAll(PsiTreeUtil.collectElementsOfType(file, ClSymbol.class));
+        }
+        return null;
+      }
+    });
+  }
+
+  @Benchmark
+  public int multiResolve() {
+    return runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        dropCaches();
+        int resolved = 0;
+        for (ClSymbol symbol : mySymbols) {
+          resolved += symbol.multiResolve(false).length;
+        }
+        return resolved;
+      }
+    });
+  }
+
+  @Benchmark
+  public int completeSymbol() {
+    return runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        dropCaches();
+        final int step = Math.max(1, mySymbols.size() / COMPLETION_SAMPLES);
+        int variants = 0;
+        for (int i = 0; i < mySymbols.size(); i += step) {
+          variants += CompleteSymbol.getVariants(mySymbols.get(i)).length;
+        }
+        return variants;
+      }
+    });
+  }
+}
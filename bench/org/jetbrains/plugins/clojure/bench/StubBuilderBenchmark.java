@@ -0,0 +1,42 @@
+package org.jetbrains.plugins.clojure.bench;
+
+import com.intellij.openapi.util.Computable;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.plugins.clojure.psi.stubs.ClojureFileStubBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.List;
+
+/**
+ * Stub tree creation by ClojureFileStubBuilder on parsed files
+ */
+public class StubBuilderBenchmark extends PsiBenchmarkBase {
+
+  private List<PsiFile> myFiles;
+
+  @Override
+  protected void setUp() {
+    myFiles = createFiles();
+    runReadAction(new Computable<Object>() {
+      public Object compute() {
+        for (PsiFile file : myFiles) {
+          file.getNode().getChildren(null);
+        }
+        return null;
+      }
+    });
+  }
+
+  @Benchmark
+  public int buildStubs() {
+    return runReadAction(new Computable<Integer>() {
+      public Integer compute() {
+        int stubs = 0;
+        for (PsiFile file : myFiles) {
+          stubs += new ClojureFileStubBuilder().buildStubTree(file).getChildrenStubs().size();
+        }
+        return stubs;
+      }
+    });
+  }
+}
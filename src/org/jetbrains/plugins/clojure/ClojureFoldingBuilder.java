@@ -4,9 +4,11 @@ import com.intellij.lang.ASTNode;
 import com.intellij.lang.folding.FoldingBuilder;
 import com.intellij.lang.folding.FoldingDescriptor;
 import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.tree.IElementType;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureReparseableElementType;
 import static org.jetbrains.plugins.clojure.parser.ClojureElementTypes.*;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
@@ -39,6 +41,8 @@ public class ClojureFoldingBuilder implements FoldingBuilder {
       final String text = ((ClList) psi).getPresentableText();
       return "(" + (text != null ? text + " " : "") + "...)";
     }
+    if (type == VECTOR) return "[...]";
+    if (type == MAP) return "{...}";
     throw new Error("Unexpected node: " + type + "-->" + node.getText());
   }
 
@@ -68,6 +72,7 @@ public class ClojureFoldingBuilder implements FoldingBuilder {
     if (isFoldableNode(node)) {
       descriptors.add(new FoldingDescriptor(node, node.getTextRange()));
     }
+    if (ClojureReparseableElementType.isCollapsed(node)) return;
 
     ASTNode child = node.getFirstChildNode();
     while (child != null) {
@@ -78,17 +83,21 @@ public class ClojureFoldingBuilder implements FoldingBuilder {
 
   private boolean isFoldableNode(ASTNode node) {
 
-    final PsiElement element = node.getPsi();
     final IElementType type = node.getElementType();
+    if (ClojureReparseableElementType.isCollapsed(node)) {
+      return StringUtil.containsLineBreak(node.getChars());
+    }
+
+    final PsiElement element = node.getPsi();
     if (type == LIST && element.getParent() instanceof ClojureFile &&
-        node.getText().contains("\n") &&
+        StringUtil.containsLineBreak(node.getChars()) &&
         element instanceof ClList) {
       return true;
     }
 
     return (type == DEF
         || type == DEFMETHOD) &&
-        node.getText().contains("\n")
+        StringUtil.containsLineBreak(node.getChars())
         ;
   }
 }
@@ -4,7 +4,6 @@ import com.intellij.lang.annotation.Annotation;
 import com.intellij.lang.annotation.AnnotationHolder;
 import com.intellij.lang.annotation.Annotator;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiFile;
 import com.intellij.util.containers.HashSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.plugins.clojure.highlighter.ClojureSyntaxHighlighter;
@@ -27,6 +26,7 @@ public class ClojureAnnotator implements Annotator {
 
   public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
     if (element instanceof ClList) {
+      ClojureParallelResolver.resolveListHeads((ClList) element);
       annotateList((ClList) element, holder);
     }
     if (element instanceof ClSymbol) {
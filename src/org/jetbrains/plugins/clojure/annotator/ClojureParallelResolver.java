@@ -0,0 +1,85 @@
+package org.jetbrains.plugins.clojure.annotator;
+
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.parser.ClojureReparseableElementType;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves heads of all lists of a top-level form before the annotator asks for them one by one.
+ * Only forms the highlighting pass annotates are resolved, so after a change local to one definition
+ * nothing outside of it is resolved again. Heads are resolved in parallel under the read action and progress
+ * of the highlighting pass, results are kept by ResolveCache, so the annotator does not resolve anything itself.
+ */
+class ClojureParallelResolver {
+  private static final Key<Long> RESOLVED_STAMP = Key.create("clojure.parallel.resolve.stamp");
+
+  private ClojureParallelResolver() {
+  }
+
+  static void resolveListHeads(@NotNull ClList list) {
+    final PsiElement form = getTopLevelForm(list);
+    if (form == null) return;
+    final long stamp = PsiModificationTracker.SERVICE.getInstance(form.getProject()).getModificationCount();
+    final Long resolved = form.getUserData(RESOLVED_STAMP);
+    if (resolved != null && resolved == stamp) return;
+
+    final List<ClSymbol> heads = collectHeads(form.getNode());
+
+    // throws ProcessCanceledException, so the stamp is kept only for complete passes
+    final boolean completed = heads.size() < 2 ||
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(heads, ProgressManager.getInstance().getProgressIndicator(), true,
+            new Processor<ClSymbol>() {
+              public boolean process(ClSymbol head) {
+                head.multiResolve(false);
+                return true;
+              }
+            });
+    if (completed) {
+      form.putUserData(RESOLVED_STAMP, stamp);
+    }
+  }
+
+  private static PsiElement getTopLevelForm(PsiElement element) {
+    while (element != null && !(element.getParent() instanceof PsiFile)) {
+      element = element.getParent();
+    }
+    return element;
+  }
+
+  /**
+   * Collapsed data literals are not entered, they contain no lists and walking them would parse them
+   */
+  private static List<ClSymbol> collectHeads(ASTNode root) {
+    final List<ClSymbol> heads = new ArrayList<ClSymbol>();
+    final List<ASTNode> stack = new ArrayList<ASTNode>();
+    stack.add(root);
+    while (!stack.isEmpty()) {
+      final ASTNode node = stack.remove(stack.size() - 1);
+      final PsiElement element = node.getPsi();
+      if (element instanceof ClList) {
+        final ClSymbol first = ((ClList) element).getFirstSymbol();
+        if (first != null) {
+          heads.add(first);
+        }
+      }
+      for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+        if (!ClojureReparseableElementType.isCollapsed(child) && child.getFirstChildNode() != null) {
+          stack.add(child);
+        }
+      }
+    }
+    return heads;
+  }
+}
@@ -0,0 +1,49 @@
+package org.jetbrains.plugins.clojure.codeInspection;
+
+import com.intellij.codeInsight.CodeInsightUtilBase;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.ClojureBundle;
+import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
+
+/**
+ * Puts ^Type before the expression, classes from java.lang are referred by short names
+ */
+public class ClojureAddTypeHintFix implements LocalQuickFix {
+  private final String myHint;
+
+  public ClojureAddTypeHintFix(@NotNull String className) {
+    myHint = ClojurePsiUtil.JAVA_LANG.equals(StringUtil.getPackageName(className)) ? StringUtil.getShortName(className) : className;
+  }
+
+  @NotNull
+  public String getName() {
+    return ClojureBundle.message("inspection.reflection.add.hint", myHint);
+  }
+
+  @NotNull
+  public String getFamilyName() {
+    return ClojureBundle.message("inspection.reflection.add.hint.family");
+  }
+
+  public void applyFix(@NotNull Project project, @NotNull ProblemDescriptor descriptor) {
+    final PsiElement element = descriptor.getPsiElement();
+    if (element == null || !element.isValid()) return;
+    final PsiFile file = element.getContainingFile();
+    if (!CodeInsightUtilBase.prepareFileForWrite(file)) return;
+
+    final PsiDocumentManager manager = PsiDocumentManager.getInstance(project);
+    final Document document = manager.getDocument(file);
+    if (document == null) return;
+    manager.doPostponedOperationsAndUnblockDocument(document);
+    document.insertString(element.getTextRange().getStartOffset(), "^" + myHint + " ");
+    manager.commitDocument(document);
+  }
+}
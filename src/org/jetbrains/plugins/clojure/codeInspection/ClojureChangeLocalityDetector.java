@@ -0,0 +1,34 @@
+package org.jetbrains.plugins.clojure.codeInspection;
+
+import com.intellij.codeInsight.daemon.ChangeLocalityDetector;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.ClVector;
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+
+/**
+ * Limits highlighting and inspections after a change inside parameters or body of a top-level definition
+ * to that definition, as nothing declared there is visible to other forms.
+ * Changes of names, metadata and of other forms make the whole file dirty.
+ */
+public class ClojureChangeLocalityDetector implements ChangeLocalityDetector {
+  @Nullable
+  public PsiElement getChangeHighlightingDirtyScopeFor(@NotNull PsiElement changedElement) {
+    PsiElement form = changedElement;
+    while (form != null && !(form.getParent() instanceof ClojureFile)) {
+      form = form.getParent();
+    }
+    if (!(form instanceof ClDef) || form == changedElement) return null;
+
+    // parameter vector of a single arity definition, or the first arity
+    PsiElement body = form.getFirstChild();
+    while (body != null && !(body instanceof ClVector) && !(body instanceof ClList)) {
+      body = body.getNextSibling();
+    }
+    if (body == null || changedElement.getTextRange().getStartOffset() < body.getTextRange().getStartOffset()) return null;
+    return form;
+  }
+}
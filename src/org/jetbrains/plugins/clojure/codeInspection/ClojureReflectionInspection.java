@@ -0,0 +1,237 @@
+package org.jetbrains.plugins.clojure.codeInspection;
+
+import com.intellij.codeHighlighting.HighlightDisplayLevel;
+import com.intellij.codeInspection.LocalInspectionTool;
+import com.intellij.codeInspection.LocalQuickFix;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import org.jetbrains.annotations.Nls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.ClojureBundle;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.symbols.ClSymbolImpl;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureTypeInference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reports Java interop calls, which the compiler resolves by reflection, as *warn-on-reflection* would:
+ * (.method x), (. x method) and (.. x method) with the class of x not inferred by ClojureTypeInference or having
+ * no such member, and Class/method calls with several overloads of the same arity and an argument of unknown class.
+ * Quick fixes add ^Type hints for classes declaring the method.
+ */
+public class ClojureReflectionInspection extends LocalInspectionTool {
+  private static final String DOT = ".";
+  private static final String DOT_DOT = "..";
+  private static final String NS_SEPARATOR = "/";
+  /**
+   * Hints are not offered, if the method is found in more classes
+   */
+  private static final int MAX_FIXES = 5;
+
+  @Nls
+  @NotNull
+  public String getGroupDisplayName() {
+    return ClojureBundle.message("inspection.group.clojure");
+  }
+
+  @Nls
+  @NotNull
+  public String getDisplayName() {
+    return ClojureBundle.message("inspection.reflection.name");
+  }
+
+  @NotNull
+  public String getShortName() {
+    return "ClojureReflection";
+  }
+
+  @Override
+  public boolean isEnabledByDefault() {
+    return true;
+  }
+
+  @NotNull
+  @Override
+  public HighlightDisplayLevel getDefaultLevel() {
+    return HighlightDisplayLevel.WARNING;
+  }
+
+  @NotNull
+  @Override
+  public PsiElementVisitor buildVisitor(@NotNull final ProblemsHolder holder, boolean isOnTheFly) {
+    return new PsiElementVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        if (element instanceof ClList) {
+          checkCall((ClList) element, holder);
+        }
+      }
+    };
+  }
+
+  private static void checkCall(ClList call, ProblemsHolder holder) {
+    final PsiElement first = call.getFirstNonLeafElement();
+    if (!(first instanceof ClSymbol)) return;
+    final ClSymbol head = (ClSymbol) first;
+    final String text = head.getText();
+
+    if (DOT.equals(text)) {
+      checkDotForm(call, holder);
+    } else if (DOT_DOT.equals(text)) {
+      checkDotDotForm(call, holder);
+    } else if (text.length() > 1 && text.startsWith(DOT) && head.getQualifierSymbol() == null) {
+      // (.method x args)
+      final PsiElement receiver = ClojureTypeInference.getReceiver(call);
+      if (receiver != null) {
+        checkInstanceCall(head, null, receiver, getForms(ClojureTypeInference.nextForm(receiver)).size(), holder);
+      }
+    } else if (head.getQualifierSymbol() != null) {
+      final PsiElement separator = head.getSeparatorToken();
+      if (separator != null && NS_SEPARATOR.equals(separator.getText())) {
+        checkStaticCall(head, getForms(ClojureTypeInference.nextForm(head)), holder);
+      }
+    }
+  }
+
+  /**
+   * (. x method args) and (. x (method args))
+   */
+  private static void checkDotForm(ClList call, ProblemsHolder holder) {
+    final PsiElement receiver = ClojureTypeInference.getReceiver(call);
+    if (receiver == null) return;
+    PsiElement member = ClojureTypeInference.nextForm(receiver);
+    if (member instanceof ClList) {
+      member = ((ClList) member).getFirstNonLeafElement();
+    }
+    if (member instanceof ClSymbol) {
+      checkInstanceCall((ClSymbol) member, call, receiver, getForms(ClojureTypeInference.nextForm(member)).size(), holder);
+    }
+  }
+
+  /**
+   * (.. x method (method args) ...), only the first call has a target, the class of which may be known
+   */
+  private static void checkDotDotForm(ClList call, ProblemsHolder holder) {
+    final PsiElement receiver = ClojureTypeInference.getReceiver(call);
+    if (receiver == null) return;
+    final PsiElement member = ClojureTypeInference.nextForm(receiver);
+    if (member instanceof ClSymbol) {
+      checkInstanceCall((ClSymbol) member, call, receiver, 0, holder);
+    } else if (member instanceof ClList) {
+      final PsiElement method = ((ClList) member).getFirstNonLeafElement();
+      if (method instanceof ClSymbol) {
+        checkInstanceCall((ClSymbol) method, call, receiver, getForms(ClojureTypeInference.nextForm(method)).size(), holder);
+      }
+    }
+  }
+
+  /**
+   * The compiler reflects, unless the class of the receiver is known and has a member of the name and arity
+   */
+  private static void checkInstanceCall(ClSymbol method, @Nullable ClList dotForm, PsiElement receiver, int argCount,
+                                        ProblemsHolder holder) {
+    // classes of literals and collections are known to the compiler
+    if (!(receiver instanceof ClSymbol) && !(receiver instanceof ClList)) return;
+    // static members and methods of Class
+    if (receiver instanceof ClSymbol && getResolvedClass((ClSymbol) receiver) != null) return;
+    final String name = StringUtil.trimStart(method.getText(), DOT);
+    final PsiClass receiverClass = ClojureTypeInference.inferClass(receiver);
+    if (receiverClass != null && hasMember(receiverClass, name, argCount)) return;
+
+    final ResolveResult[] candidates = dotForm == null ? method.multiResolve(false) :
+        ClSymbolImpl.MyResolver.resolveJavaMethodReference(method, dotForm, false);
+    final Set<String> classNames = new TreeSet<String>();
+    for (ResolveResult candidate : candidates) {
+      final PsiElement element = candidate.getElement();
+      if (element instanceof PsiMethod && ((PsiMethod) element).getParameterList().getParametersCount() == argCount) {
+        final PsiClass clazz = ((PsiMethod) element).getContainingClass();
+        if (clazz != null && clazz.getQualifiedName() != null) {
+          classNames.add(clazz.getQualifiedName());
+        }
+      }
+    }
+
+    final String message = receiverClass == null ? ClojureBundle.message("inspection.reflection.receiver", name) :
+        ClojureBundle.message("inspection.reflection.no.member", name, argCount, receiverClass.getName());
+    holder.registerProblem(receiver, message, createFixes(classNames));
+  }
+
+  private static boolean hasMember(PsiClass clazz, String name, int argCount) {
+    for (PsiMethod candidate : clazz.findMethodsByName(name, true)) {
+      if (candidate.getParameterList().getParametersCount() == argCount) return true;
+    }
+    return argCount == 0 && clazz.findFieldByName(name, true) != null;
+  }
+
+  /**
+   * Overloads of the same arity are chosen by classes of arguments, so all of them must be known
+   */
+  private static void checkStaticCall(ClSymbol method, List<PsiElement> args, ProblemsHolder holder) {
+    final ClSymbol qualifier = method.getQualifierSymbol();
+    final PsiClass clazz = qualifier == null ? null : getResolvedClass(qualifier);
+    final String name = method.getReferenceName();
+    if (clazz == null || name == null) return;
+
+    final List<PsiMethod> overloads = new ArrayList<PsiMethod>();
+    for (PsiMethod candidate : clazz.findMethodsByName(name, true)) {
+      if (candidate.hasModifierProperty(PsiModifier.STATIC) && candidate.getParameterList().getParametersCount() == args.size()) {
+        overloads.add(candidate);
+      }
+    }
+    if (overloads.size() < 2) return;
+
+    for (int i = 0; i < args.size(); i++) {
+      final PsiElement arg = args.get(i);
+      if ((arg instanceof ClSymbol || arg instanceof ClList) && ClojureTypeInference.inferClass(arg) == null) {
+        final Set<String> classNames = new TreeSet<String>();
+        for (PsiMethod overload : overloads) {
+          final PsiType type = overload.getParameterList().getParameters()[i].getType();
+          final PsiClass parameterClass = type instanceof PsiClassType ? ((PsiClassType) type).resolve() : null;
+          if (parameterClass != null && !(parameterClass instanceof PsiTypeParameter) && parameterClass.getQualifiedName() != null) {
+            classNames.add(parameterClass.getQualifiedName());
+          }
+        }
+        holder.registerProblem(arg, ClojureBundle.message("inspection.reflection.argument", name, clazz.getName()),
+            createFixes(classNames));
+        return;
+      }
+    }
+  }
+
+  private static LocalQuickFix[] createFixes(Set<String> classNames) {
+    if (classNames.size() > MAX_FIXES) return new LocalQuickFix[0];
+    final List<LocalQuickFix> fixes = new ArrayList<LocalQuickFix>();
+    for (String className : classNames) {
+      fixes.add(new ClojureAddTypeHintFix(className));
+    }
+    return fixes.toArray(new LocalQuickFix[fixes.size()]);
+  }
+
+  @Nullable
+  private static PsiClass getResolvedClass(ClSymbol symbol) {
+    for (ResolveResult result : symbol.multiResolve(false)) {
+      if (result.getElement() instanceof PsiClass) {
+        return (PsiClass) result.getElement();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return The form and forms following it
+   */
+  private static List<PsiElement> getForms(@Nullable PsiElement first) {
+    final List<PsiElement> result = new ArrayList<PsiElement>();
+    for (PsiElement form = first; form != null; form = ClojureTypeInference.nextForm(form)) {
+      result.add(form);
+    }
+    return result;
+  }
+}
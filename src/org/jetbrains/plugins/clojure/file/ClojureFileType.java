@@ -36,6 +36,8 @@ public class ClojureFileType extends LanguageFileType {
   public static final Icon CLOJURE_LOGO = ClojureIcons.CLOJURE_ICON_16x16;
   @NonNls
   public static final String CLOJURE_DEFAULT_EXTENSION = "clj";
+  @NonNls
+  public static final String CLOJURE_DATA_EXTENSION = "edn";
 
 
   public ClojureFileType() {
@@ -20,6 +20,7 @@ import org.jetbrains.annotations.NotNull;
  */
 public class ClojureFileTypeLoader extends FileTypeFactory {
   public void createFileTypes(@NotNull FileTypeConsumer consumer) {
-    consumer.consume(ClojureFileType.CLOJURE_FILE_TYPE, ClojureFileType.CLOJURE_DEFAULT_EXTENSION);
+    consumer.consume(ClojureFileType.CLOJURE_FILE_TYPE,
+        ClojureFileType.CLOJURE_DEFAULT_EXTENSION + ";" + ClojureFileType.CLOJURE_DATA_EXTENSION);
   }
 }
@@ -1,14 +1,11 @@
 package org.jetbrains.plugins.clojure.findUsages;
 
-import com.intellij.lang.cacheBuilder.DefaultWordsScanner;
 import com.intellij.lang.cacheBuilder.WordsScanner;
 import com.intellij.lang.findUsages.FindUsagesProvider;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiNamedElement;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
-import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 
@@ -19,8 +16,7 @@ public class ClojureFindUsagesProvider implements FindUsagesProvider{
 
   @Nullable
   public WordsScanner getWordsScanner() {
-    return new DefaultWordsScanner(new ClojureFlexLexer(),
-            ClojureTokenTypes.IDENTIFIERS, ClojureTokenTypes.COMMENTS, ClojureTokenTypes.STRINGS);
+    return new ClojureWordsScanner();
   }
 
   public boolean canFindUsagesFor(@NotNull PsiElement psiElement) {
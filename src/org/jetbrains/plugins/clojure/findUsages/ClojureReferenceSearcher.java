@@ -1,17 +1,22 @@
 package org.jetbrains.plugins.clojure.findUsages;
 
-import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
-import com.intellij.psi.search.PsiSearchHelper;
-import com.intellij.psi.search.SearchScope;
-import com.intellij.psi.search.TextOccurenceProcessor;
-import com.intellij.psi.search.UsageSearchContext;
+import com.intellij.psi.impl.cache.CacheManager;
+import com.intellij.psi.search.*;
 import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.Processor;
 import com.intellij.util.QueryExecutor;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureQualifiedReferenceIndex;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * @author ilyas
@@ -26,16 +31,21 @@ public class ClojureReferenceSearcher implements QueryExecutor<PsiReference, Ref
       final PsiNamedElement symbolToSearch = (PsiNamedElement) elem;
       final String name = symbolToSearch.getName();
       if (name != null) {
-        final List<String> wordsIn = StringUtil.getWordsIn(name);
+        final Set<ClSymbol> qualifiedReferences = new HashSet<ClSymbol>();
+        if (scope instanceof GlobalSearchScope &&
+            !processQualifiedReferences(symbolToSearch, (GlobalSearchScope) scope, consumer, qualifiedReferences)) {
+          return false;
+        }
+
         final TextOccurenceProcessor processor = new TextOccurenceProcessor() {
           public boolean execute(PsiElement element, int offsetInElement) {
-            if (element instanceof ClSymbol) {
+            if (element instanceof ClSymbol && !qualifiedReferences.contains(element)) {
               ClSymbol refSymbol = (ClSymbol) element;
               for (PsiReference ref : refSymbol.getReferences()) {
-                if (ref.getRangeInElement().contains(offsetInElement) &&
-                    // atom may refer to definition or to the symbol in it
-                    (ref.resolve() == symbolToSearch ||
-                        ref.resolve() == symbolToSearch.getParent())) {
+                if (!ref.getRangeInElement().contains(offsetInElement)) continue;
+                final PsiElement resolved = ref.resolve();
+                // atom may refer to definition or to the symbol in it
+                if (resolved == symbolToSearch || resolved == symbolToSearch.getParent()) {
                   if (!consumer.process(ref)) return false;
                 }
               }
@@ -44,12 +54,81 @@ public class ClojureReferenceSearcher implements QueryExecutor<PsiReference, Ref
           }
         };
         final PsiSearchHelper helper = PsiSearchHelper.SERVICE.getInstance(elem.getProject());
-        for (String word : wordsIn) {
-          helper.processElementsWithWord(processor, scope, word, UsageSearchContext.ANY, true);
+        if (!(scope instanceof GlobalSearchScope)) {
+          return helper.processElementsWithWord(processor, scope, name, UsageSearchContext.IN_CODE, true);
+        }
+
+        // Search helper would split the name in Java words and visit files containing any of them,
+        // whereas ClojureWordsScanner indexes Clojure symbols whole
+        final PsiFile[] files = ApplicationManager.getApplication().runReadAction(new Computable<PsiFile[]>() {
+          public PsiFile[] compute() {
+            return CacheManager.SERVICE.getInstance(elem.getProject()).getFilesWithWord(name, UsageSearchContext.IN_CODE,
+                (GlobalSearchScope) scope, true);
+          }
+        });
+        for (PsiFile file : files) {
+          if (!helper.processElementsWithWord(processor, new LocalSearchScope(file), name, UsageSearchContext.IN_CODE, true)) {
+            return false;
+          }
         }
       }
     }
     return true;
   }
 
+  /**
+   * Qualified symbols found by ClojureQualifiedReferenceIndex refer to the definition for sure, so they are not resolved
+   *
+   * @param found Collects the symbols, which need no further check
+   */
+  private static boolean processQualifiedReferences(PsiNamedElement element, final GlobalSearchScope scope,
+                                                    Processor<PsiReference> consumer, final Set<ClSymbol> found) {
+    final ClDef def = element instanceof ClDef ? (ClDef) element :
+        element.getParent() instanceof ClDef && ((ClDef) element.getParent()).getNameSymbol() == element ?
+            (ClDef) element.getParent() : null;
+    if (def == null) return true;
+
+    final Project project = def.getProject();
+    final Map<VirtualFile, List<Integer>> occurrences = ApplicationManager.getApplication().runReadAction(new Computable<Map<VirtualFile, List<Integer>>>() {
+      public Map<VirtualFile, List<Integer>> compute() {
+        final String namespace = def.getNamespace();
+        final String name = def.getDefinedName();
+        final Map<VirtualFile, List<Integer>> result = new HashMap<VirtualFile, List<Integer>>();
+        if (namespace == null || name == null) return result;
+        FileBasedIndex.getInstance().processValues(ClojureQualifiedReferenceIndex.NAME,
+            ClojureQualifiedReferenceIndex.getKey(namespace, name), null, new FileBasedIndex.ValueProcessor<List<Integer>>() {
+          public boolean process(VirtualFile file, List<Integer> value) {
+            result.put(file, value);
+            return true;
+          }
+        }, scope);
+        return result;
+      }
+    });
+
+    for (final Map.Entry<VirtualFile, List<Integer>> entry : occurrences.entrySet()) {
+      final List<ClSymbol> symbols = ApplicationManager.getApplication().runReadAction(new Computable<List<ClSymbol>>() {
+        public List<ClSymbol> compute() {
+          final ArrayList<ClSymbol> result = new ArrayList<ClSymbol>();
+          final PsiFile file = PsiManager.getInstance(project).findFile(entry.getKey());
+          if (file == null) return result;
+          for (Integer offset : entry.getValue()) {
+            ClSymbol symbol = PsiTreeUtil.getParentOfType(file.findElementAt(offset), ClSymbol.class);
+            while (symbol != null && symbol.getParent() instanceof ClSymbol) {
+              symbol = (ClSymbol) symbol.getParent();
+            }
+            if (symbol != null && symbol.isQualified() && def.getDefinedName().equals(symbol.getReferenceName())) {
+              result.add(symbol);
+            }
+          }
+          return result;
+        }
+      });
+      for (ClSymbol symbol : symbols) {
+        found.add(symbol);
+        if (!consumer.process(symbol)) return false;
+      }
+    }
+    return true;
+  }
 }
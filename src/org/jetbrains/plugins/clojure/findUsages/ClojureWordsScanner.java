@@ -0,0 +1,97 @@
+package org.jetbrains.plugins.clojure.findUsages;
+
+import com.intellij.lang.cacheBuilder.WordOccurrence;
+import com.intellij.lang.cacheBuilder.WordsScanner;
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.util.Processor;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+
+/**
+ * Unlike DefaultWordsScanner, puts whole Clojure symbols into the word index: get-user-by-id, str/join and
+ * java.util.Date are words, as well as every part of a qualified symbol, so ClojureReferenceSearcher
+ * may look for exactly the name it searches. Java identifier parts of symbols are indexed too,
+ * otherwise text search, which splits the text it looks for in such parts, would miss them.
+ */
+public class ClojureWordsScanner implements WordsScanner, ClojureTokenTypes {
+
+  public void processWords(CharSequence fileText, Processor<WordOccurrence> processor) {
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(fileText);
+    final WordOccurrence occurrence = new WordOccurrence(fileText, 0, 0, null);
+    IElementType type;
+    while ((type = lexer.getTokenType()) != null) {
+      if (ATOMS.contains(type)) {
+        final int start = lexer.getTokenStart();
+        int end = start;
+        int parts = 0;
+        do {
+          if (lexer.getTokenType() == symATOM) {
+            if (!processSymbol(processor, fileText, lexer.getTokenStart(), lexer.getTokenEnd(), occurrence)) return;
+            end = lexer.getTokenEnd();
+            parts++;
+          } else if (lexer.getTokenType() == symNS_SEP && parts > 1) {
+            // namespace part of a.b/c
+            if (!process(processor, fileText, start, end, WordOccurrence.Kind.CODE, occurrence)) return;
+          }
+          lexer.advance();
+        } while (ATOMS.contains(lexer.getTokenType()));
+        if (parts > 1 && !process(processor, fileText, start, end, WordOccurrence.Kind.CODE, occurrence)) return;
+        continue;
+      }
+
+      if (type == COLON_SYMBOL) {
+        int start = lexer.getTokenStart();
+        while (start < lexer.getTokenEnd() && fileText.charAt(start) == ':') start++;
+        if (!processSymbol(processor, fileText, start, lexer.getTokenEnd(), occurrence)) return;
+      } else if (COMMENTS.contains(type)) {
+        if (!stripWords(processor, fileText, lexer.getTokenStart(), lexer.getTokenEnd(), WordOccurrence.Kind.COMMENTS, occurrence)) {
+          return;
+        }
+      } else if (STRINGS.contains(type)) {
+        if (!stripWords(processor, fileText, lexer.getTokenStart(), lexer.getTokenEnd(), WordOccurrence.Kind.LITERALS, occurrence)) {
+          return;
+        }
+      }
+      lexer.advance();
+    }
+  }
+
+  private static boolean processSymbol(Processor<WordOccurrence> processor, CharSequence text, int start, int end,
+                                       WordOccurrence occurrence) {
+    if (start >= end) return true;
+    if (!process(processor, text, start, end, WordOccurrence.Kind.CODE, occurrence)) return false;
+    // method call .getTime and constructor call java.util.Date. name getTime and java.util.Date
+    final int nameStart = text.charAt(start) == '.' ? start + 1 : start;
+    final int nameEnd = text.charAt(end - 1) == '.' ? end - 1 : end;
+    if ((nameStart != start || nameEnd != end) && nameStart < nameEnd &&
+        !process(processor, text, nameStart, nameEnd, WordOccurrence.Kind.CODE, occurrence)) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (!Character.isJavaIdentifierPart(text.charAt(i))) {
+        return stripWords(processor, text, start, end, WordOccurrence.Kind.CODE, occurrence);
+      }
+    }
+    return true;
+  }
+
+  private static boolean stripWords(Processor<WordOccurrence> processor, CharSequence text, int from, int to,
+                                    WordOccurrence.Kind kind, WordOccurrence occurrence) {
+    int index = from;
+    while (index < to) {
+      while (index < to && !Character.isJavaIdentifierStart(text.charAt(index))) index++;
+      final int start = index;
+      while (index < to && Character.isJavaIdentifierPart(text.charAt(index))) index++;
+      if (index > start && !process(processor, text, start, index, kind, occurrence)) return false;
+    }
+    return true;
+  }
+
+  private static boolean process(Processor<WordOccurrence> processor, CharSequence text, int start, int end,
+                                 WordOccurrence.Kind kind, WordOccurrence occurrence) {
+    occurrence.init(text, start, end, kind);
+    return processor.process(occurrence);
+  }
+}
@@ -1,4 +1,4 @@
-/* The following code was generated by JFlex 1.4.1 on 10/16/11 6:54 PM */
+/* The following code was generated by JFlex 1.4.1 on 10/17/26, 2:27 AM */
 
 /*
  * Copyright 2000-2009 Red Shark Technology
@@ -27,7 +27,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * This class is a scanner generated by 
  * <a href="http://www.jflex.de/">JFlex</a> 1.4.1
- * on 10/16/11 6:54 PM from the specification file
+ * on 10/17/26, 2:27 AM from the specification file
  * <tt>src/org/jetbrains/plugins/clojure/lexer/clojure.flex</tt>
  */
 public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
@@ -123,15 +123,15 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
     "\2\0\1\1\1\2\1\3\1\4\1\5\1\4\1\5"+
     "\1\4\1\6\1\7\1\10\1\11\1\12\1\13\1\14"+
     "\1\15\1\16\1\17\1\20\1\21\1\22\1\23\1\1"+
-    "\2\4\1\24\1\25\1\1\1\26\1\6\1\27\1\30"+
-    "\1\31\1\32\1\33\1\34\1\5\1\35\3\0\1\4"+
+    "\2\4\1\24\1\25\1\1\1\26\1\27\1\30\1\31"+
+    "\1\27\1\32\1\33\1\34\1\5\1\35\3\0\1\4"+
     "\1\0\1\6\1\36\2\21\1\37\2\40\2\4\1\0"+
-    "\1\41\1\42\1\0\1\43\1\0\1\43\2\44\1\4"+
-    "\1\5\1\45\1\4\1\43\1\0\1\4\1\5\1\46"+
-    "\1\44\1\47";
+    "\1\41\1\42\1\0\1\6\1\43\1\44\1\45\1\0"+
+    "\1\45\2\46\1\4\1\5\1\47\1\4\1\45\1\0"+
+    "\1\4\1\5\1\50\1\46\1\51";
 
   private static int [] zzUnpackAction() {
-    int [] result = new int[74];
+    int [] result = new int[77];
     int offset = 0;
     offset = zzUnpackAction(ZZ_ACTION_PACKED_0, offset, result);
     return result;
@@ -160,15 +160,15 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
     "\0\u0157\0\u0188\0\304\0\142\0\142\0\142\0\142\0\142"+
     "\0\142\0\142\0\142\0\u01b9\0\142\0\u01ea\0\u021b\0\142"+
     "\0\u024c\0\u027d\0\u02ae\0\u02df\0\u0310\0\u0341\0\142\0\u0372"+
-    "\0\142\0\142\0\142\0\142\0\142\0\142\0\142\0\142"+
-    "\0\u03a3\0\u03d4\0\u0405\0\u0436\0\u0467\0\u0498\0\142\0\u04c9"+
-    "\0\142\0\142\0\142\0\u04fa\0\u052b\0\u055c\0\u058d\0\142"+
-    "\0\u05be\0\u05ef\0\u0620\0\u0651\0\u0682\0\u06b3\0\u06e4\0\u0715"+
-    "\0\u0746\0\304\0\u0777\0\142\0\u07a8\0\u07d9\0\u080a\0\304"+
-    "\0\u07a8\0\304";
+    "\0\u03a3\0\u03d4\0\142\0\142\0\142\0\142\0\142\0\142"+
+    "\0\u0405\0\u0436\0\u0467\0\u0498\0\u04c9\0\u04fa\0\142\0\u052b"+
+    "\0\142\0\142\0\142\0\u055c\0\u058d\0\u05be\0\u05ef\0\142"+
+    "\0\u0620\0\u0651\0\142\0\142\0\142\0\u0682\0\u06b3\0\u06e4"+
+    "\0\u0715\0\u0746\0\u0777\0\u07a8\0\304\0\u07d9\0\142\0\u080a"+
+    "\0\u083b\0\u086c\0\304\0\u080a\0\304";
 
   private static int [] zzUnpackRowMap() {
-    int [] result = new int[74];
+    int [] result = new int[77];
     int offset = 0;
     offset = zzUnpackRowMap(ZZ_ROWMAP_PACKED_0, offset, result);
     return result;
@@ -218,44 +218,47 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
     "\44\34\1\67\5\34\1\70\6\34\1\35\1\0\57\35"+
     "\5\0\1\71\1\0\13\71\1\0\3\71\10\0\1\71"+
     "\2\0\1\71\4\0\4\71\1\0\1\71\1\0\1\71"+
-    "\1\72\2\71\5\0\17\40\12\0\1\43\2\0\1\40"+
-    "\4\0\4\40\1\0\1\40\1\0\4\40\6\0\1\73"+
-    "\12\0\1\74\1\73\44\0\1\75\13\0\1\75\44\0"+
-    "\1\76\13\0\1\77\43\0\5\6\1\100\11\6\1\13"+
-    "\1\6\10\0\1\6\2\0\1\6\4\0\4\6\1\0"+
-    "\1\6\1\0\1\6\1\0\2\6\5\0\2\101\1\0"+
-    "\2\101\4\0\3\101\1\0\1\101\34\0\1\101\6\0"+
-    "\21\56\10\0\1\56\2\0\1\56\4\0\4\56\1\0"+
-    "\1\56\1\0\1\56\1\0\2\56\6\0\1\60\13\0"+
-    "\1\60\43\0\1\64\1\0\12\64\2\0\1\64\21\0"+
-    "\5\64\1\0\1\64\3\0\2\64\5\0\5\6\1\102"+
-    "\11\6\1\13\1\6\10\0\1\6\2\0\1\6\4\0"+
-    "\4\6\1\0\1\6\1\0\1\6\1\0\2\6\5\0"+
-    "\17\6\1\13\1\6\10\0\1\6\2\0\1\6\4\0"+
-    "\4\6\1\0\1\103\1\0\1\6\1\0\2\6\2\34"+
-    "\1\0\56\34\5\0\21\71\10\0\1\71\2\0\1\71"+
-    "\4\0\4\71\1\0\1\71\1\0\1\71\1\72\2\71"+
-    "\5\0\1\71\1\0\13\71\1\0\3\71\10\0\1\71"+
-    "\2\0\1\71\4\0\4\71\1\0\1\71\1\0\1\71"+
-    "\1\0\2\71\6\0\1\73\1\104\2\45\4\0\1\50"+
-    "\3\0\1\73\44\0\1\73\13\0\1\73\44\0\1\75"+
-    "\1\104\2\45\4\0\1\50\2\51\1\0\1\75\44\0"+
-    "\1\76\13\0\1\76\44\0\1\76\13\0\1\76\1\105"+
-    "\42\0\17\6\1\13\1\6\10\0\1\6\2\0\1\6"+
-    "\4\0\4\6\1\0\1\6\1\0\1\6\1\0\1\6"+
-    "\1\106\5\0\2\101\1\44\2\101\2\46\2\47\1\101"+
-    "\2\107\1\0\1\101\1\0\1\52\1\53\31\0\1\101"+
-    "\6\0\12\6\1\110\4\6\1\13\1\6\10\0\1\6"+
-    "\2\0\1\6\4\0\4\6\1\0\1\6\1\0\1\6"+
-    "\1\0\2\6\5\0\2\111\1\0\2\111\4\0\3\111"+
-    "\1\0\1\111\34\0\1\111\6\0\12\6\1\112\4\6"+
+    "\1\72\2\71\5\0\17\40\2\73\10\0\1\43\2\0"+
+    "\1\40\4\0\4\40\1\0\1\40\1\0\4\40\5\0"+
+    "\21\74\10\0\1\74\2\0\1\74\4\0\4\74\1\0"+
+    "\1\74\1\0\4\74\5\0\21\75\10\0\1\75\2\0"+
+    "\1\75\4\0\4\75\1\0\1\75\1\0\4\75\6\0"+
+    "\1\76\12\0\1\77\1\76\44\0\1\100\13\0\1\100"+
+    "\44\0\1\101\13\0\1\102\43\0\5\6\1\103\11\6"+
     "\1\13\1\6\10\0\1\6\2\0\1\6\4\0\4\6"+
-    "\1\0\1\6\1\0\1\6\1\0\2\6\5\0\2\101"+
-    "\1\44\2\101\2\46\2\47\1\101\2\107\1\74\1\101"+
-    "\1\0\1\52\1\53\31\0\1\101\1\0";
+    "\1\0\1\6\1\0\1\6\1\0\2\6\5\0\2\104"+
+    "\1\0\2\104\4\0\3\104\1\0\1\104\34\0\1\104"+
+    "\6\0\21\56\10\0\1\56\2\0\1\56\4\0\4\56"+
+    "\1\0\1\56\1\0\1\56\1\0\2\56\6\0\1\60"+
+    "\13\0\1\60\43\0\1\64\1\0\12\64\2\0\1\64"+
+    "\21\0\5\64\1\0\1\64\3\0\2\64\5\0\5\6"+
+    "\1\105\11\6\1\13\1\6\10\0\1\6\2\0\1\6"+
+    "\4\0\4\6\1\0\1\6\1\0\1\6\1\0\2\6"+
+    "\5\0\17\6\1\13\1\6\10\0\1\6\2\0\1\6"+
+    "\4\0\4\6\1\0\1\106\1\0\1\6\1\0\2\6"+
+    "\2\34\1\0\56\34\5\0\21\71\10\0\1\71\2\0"+
+    "\1\71\4\0\4\71\1\0\1\71\1\0\1\71\1\72"+
+    "\2\71\5\0\1\71\1\0\13\71\1\0\3\71\10\0"+
+    "\1\71\2\0\1\71\4\0\4\71\1\0\1\71\1\0"+
+    "\1\71\1\0\2\71\6\0\1\76\1\107\2\45\4\0"+
+    "\1\50\3\0\1\76\44\0\1\76\13\0\1\76\44\0"+
+    "\1\100\1\107\2\45\4\0\1\50\2\51\1\0\1\100"+
+    "\44\0\1\101\13\0\1\101\44\0\1\101\13\0\1\101"+
+    "\1\110\42\0\17\6\1\13\1\6\10\0\1\6\2\0"+
+    "\1\6\4\0\4\6\1\0\1\6\1\0\1\6\1\0"+
+    "\1\6\1\111\5\0\2\104\1\44\2\104\2\46\2\47"+
+    "\1\104\2\112\1\0\1\104\1\0\1\52\1\53\31\0"+
+    "\1\104\6\0\12\6\1\113\4\6\1\13\1\6\10\0"+
+    "\1\6\2\0\1\6\4\0\4\6\1\0\1\6\1\0"+
+    "\1\6\1\0\2\6\5\0\2\114\1\0\2\114\4\0"+
+    "\3\114\1\0\1\114\34\0\1\114\6\0\12\6\1\115"+
+    "\4\6\1\13\1\6\10\0\1\6\2\0\1\6\4\0"+
+    "\4\6\1\0\1\6\1\0\1\6\1\0\2\6\5\0"+
+    "\2\104\1\44\2\104\2\46\2\47\1\104\2\112\1\77"+
+    "\1\104\1\0\1\52\1\53\31\0\1\104\1\0";
 
   private static int [] zzUnpackTrans() {
-    int [] result = new int[2107];
+    int [] result = new int[2205];
     int offset = 0;
     offset = zzUnpackTrans(ZZ_TRANS_PACKED_0, offset, result);
     return result;
@@ -297,12 +300,13 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
 
   private static final String ZZ_ATTRIBUTE_PACKED_0 =
     "\2\0\1\11\1\1\1\11\6\1\10\11\1\1\1\11"+
-    "\2\1\1\11\6\1\1\11\1\1\10\11\3\0\1\1"+
+    "\2\1\1\11\6\1\1\11\3\3\6\11\3\0\1\1"+
     "\1\0\1\1\1\11\1\1\3\11\3\1\1\0\1\11"+
-    "\1\1\1\0\1\1\1\0\7\1\1\11\1\0\5\1";
+    "\1\1\1\0\3\15\1\1\1\0\7\1\1\11\1\0"+
+    "\5\1";
 
   private static int [] zzUnpackAttribute() {
-    int [] result = new int[74];
+    int [] result = new int[77];
     int offset = 0;
     offset = zzUnpackAttribute(ZZ_ATTRIBUTE_PACKED_0, offset, result);
     return result;
@@ -584,6 +588,8 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
     int [] zzTransL = ZZ_TRANS;
     int [] zzRowMapL = ZZ_ROWMAP;
     int [] zzAttrL = ZZ_ATTRIBUTE;
+    int zzPushbackPosL = zzPushbackPos = -1;
+    boolean zzWasPushback;
 
     while (true) {
       zzMarkedPosL = zzMarkedPos;
@@ -594,6 +600,7 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
 
       zzState = zzLexicalState;
 
+      zzWasPushback = false;
 
       zzForAction: {
         while (true) {
@@ -608,12 +615,14 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
             // store back cached positions
             zzCurrentPos  = zzCurrentPosL;
             zzMarkedPos   = zzMarkedPosL;
+            zzPushbackPos = zzPushbackPosL;
             boolean eof = zzRefill();
             // get translated positions and possibly new buffer
             zzCurrentPosL  = zzCurrentPos;
             zzMarkedPosL   = zzMarkedPos;
             zzBufferL      = zzBuffer;
             zzEndReadL     = zzEndRead;
+            zzPushbackPosL = zzPushbackPos;
             if (eof) {
               zzInput = YYEOF;
               break zzForAction;
@@ -627,7 +636,11 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
           zzState = zzNext;
 
           int zzAttributes = zzAttrL[zzState];
+          if ( (zzAttributes & 2) == 2 )
+            zzPushbackPosL = zzCurrentPosL;
+
           if ( (zzAttributes & 1) == 1 ) {
+            zzWasPushback = (zzAttributes & 4) == 4;
             zzAction = zzState;
             zzMarkedPosL = zzCurrentPosL;
             if ( (zzAttributes & 8) == 8 ) break zzForAction;
@@ -638,164 +651,174 @@ public class _ClojureLexer implements ClojureTokenTypes, FlexLexer {
 
       // store back cached position
       zzMarkedPos = zzMarkedPosL;
+      if (zzWasPushback)
+        zzMarkedPos = zzPushbackPosL;
 
       switch (zzAction < 0 ? zzAction : ZZ_ACTION[zzAction]) {
         case 30: 
           { return SHARPUP;
           }
-        case 40: break;
+        case 42: break;
         case 12: 
           { return RIGHT_CURLY;
           }
-        case 41: break;
+        case 43: break;
         case 17: 
           { return symIMPLICIT_ARG;
           }
-        case 42: break;
+        case 44: break;
         case 15: 
           { return SHARP;
           }
-        case 43: break;
+        case 45: break;
         case 5: 
           { return INTEGER_LITERAL;
           }
-        case 44: break;
+        case 46: break;
         case 34: 
           { return COLON_SYMBOL;
           }
-        case 45: break;
+        case 47: break;
         case 28: 
           { return LONG_LITERAL;
           }
-        case 46: break;
-        case 23: 
+        case 48: break;
+        case 35: 
           { return symDOT;
           }
-        case 47: break;
-        case 35: 
+        case 49: break;
+        case 37: 
           { return BIG_DECIMAL_LITERAL;
           }
-        case 48: break;
+        case 50: break;
+        case 25: 
+          { yybegin(YYINITIAL); return symNS_SEP;
+          }
+        case 51: break;
         case 14: 
           { return BACKQUOTE;
           }
-        case 49: break;
-        case 25: 
+        case 52: break;
+        case 23: 
           { yybegin(YYINITIAL); return symATOM;
           }
-        case 50: break;
-        case 39: 
+        case 53: break;
+        case 41: 
           { return FALSE;
           }
-        case 51: break;
+        case 54: break;
         case 7: 
           { return LEFT_PAREN;
           }
-        case 52: break;
+        case 55: break;
         case 6: 
           { return symATOM;
           }
-        case 53: break;
+        case 56: break;
         case 22: 
           { yypushback(yytext().length()); yybegin(YYINITIAL);
           }
-        case 54: break;
+        case 57: break;
         case 27: 
           { return FLOAT_LITERAL;
           }
-        case 55: break;
+        case 58: break;
         case 3: 
           { return COMMA;
           }
-        case 56: break;
+        case 59: break;
         case 16: 
           { return UP;
           }
-        case 57: break;
+        case 60: break;
         case 19: 
           { return AT;
           }
-        case 58: break;
+        case 61: break;
         case 20: 
           { return WRONG_STRING_LITERAL;
           }
-        case 59: break;
+        case 62: break;
         case 18: 
           { return TILDA;
           }
-        case 60: break;
+        case 63: break;
         case 33: 
           { return STRING_LITERAL;
           }
-        case 61: break;
+        case 64: break;
         case 31: 
           { return TILDAAT;
           }
-        case 62: break;
+        case 65: break;
         case 26: 
           { return BIG_INT_LITERAL;
           }
-        case 63: break;
+        case 66: break;
         case 10: 
           { return RIGHT_SQUARE;
           }
-        case 64: break;
+        case 67: break;
         case 2: 
           { return WHITESPACE;
           }
-        case 65: break;
+        case 68: break;
         case 21: 
           { return LINE_COMMENT;
           }
-        case 66: break;
+        case 69: break;
         case 13: 
           { return QUOTE;
           }
-        case 67: break;
+        case 70: break;
         case 29: 
           { return DOUBLE_LITERAL;
           }
-        case 68: break;
+        case 71: break;
         case 8: 
           { return RIGHT_PAREN;
           }
-        case 69: break;
-        case 36: 
+        case 72: break;
+        case 38: 
           { return RATIO;
           }
-        case 70: break;
-        case 24: 
+        case 73: break;
+        case 36: 
           { return symNS_SEP;
           }
-        case 71: break;
+        case 74: break;
         case 11: 
           { return LEFT_CURLY;
           }
-        case 72: break;
+        case 75: break;
         case 32: 
           { return CHAR_LITERAL;
           }
-        case 73: break;
-        case 37: 
+        case 76: break;
+        case 39: 
           { return NIL;
           }
-        case 74: break;
-        case 38: 
+        case 77: break;
+        case 40: 
           { return TRUE;
           }
-        case 75: break;
+        case 78: break;
         case 1: 
           { return BAD_CHARACTER;
           }
-        case 76: break;
+        case 79: break;
         case 9: 
           { return LEFT_SQUARE;
           }
-        case 77: break;
+        case 80: break;
         case 4: 
           { yypushback(yytext().length()); yybegin(SYMBOL);
           }
-        case 78: break;
+        case 81: break;
+        case 24: 
+          { yybegin(YYINITIAL); return symDOT;
+          }
+        case 82: break;
         default:
           if (zzInput == YYEOF && zzStartRead == zzCurrentPos) {
             zzAtEOF = true;
@@ -38,9 +38,9 @@ public interface ClojureElementTypes extends ClojureTokenTypes {
   final IStubFileElementType FILE = new ClStubFileElementType();
 
   final IElementType TOPLIST = new ClojureElementType("toplist");
-  final IElementType LIST = new ClojureElementType("list");
-  final IElementType VECTOR = new ClojureElementType("vector");
-  final IElementType MAP = new ClojureElementType("map");
+  final IElementType LIST = new ClojureReparseableElementType("list", LEFT_PAREN, RIGHT_PAREN);
+  final IElementType VECTOR = new ClojureReparseableElementType("vector", LEFT_SQUARE, RIGHT_SQUARE);
+  final IElementType MAP = new ClojureReparseableElementType("map", LEFT_CURLY, RIGHT_CURLY);
   final IElementType SET = new ClojureElementType("map");
 
   final ClStubElementType<ClDefStub, ClDef> DEF = new ClDefElementType();
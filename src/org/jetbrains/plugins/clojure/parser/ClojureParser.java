@@ -10,10 +10,11 @@ import org.jetbrains.plugins.clojure.ClojureBundle;
 import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
 import static org.jetbrains.plugins.clojure.parser.ClojureElementTypes.*;
 import org.jetbrains.plugins.clojure.parser.util.ParserUtils;
-import static org.jetbrains.plugins.clojure.parser.ClojureSpecialFormTokens.DEF_TOKENS;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Set;
+import java.util.TreeSet;
 
 
 /**
@@ -45,39 +46,176 @@ public class ClojureParser implements PsiParser, ClojureTokenTypes {
   public ASTNode parse(IElementType root, PsiBuilder builder) {
     //builder.setDebugMode(true);
     PsiBuilder.Marker marker = builder.mark();
+    myFailedDataLiterals.clear();
+    if (root instanceof ClojureReparseableElementType) {
+      parseReparseableContents((ClojureReparseableElementType) root, builder);
+    }
     for (IElementType token = builder.getTokenType(); token != null; token = builder.getTokenType()) {
       parseExpression(builder);
     }
-    marker.done(FILE);
+    marker.done(root);
     return builder.getTreeBuilt();
   }
 
+  /**
+   * Parses the contents of a single form being re-parsed on its own,
+   * see {@link ClojureReparseableElementType#isParsable(CharSequence, com.intellij.openapi.project.Project)}
+   * Enter: Lexer is pointed at the opening brace
+   * Exit: Lexer is pointed immediately after the closing brace, or at the end-of-file
+   */
+  private void parseReparseableContents(ClojureReparseableElementType root, PsiBuilder builder) {
+    if (builder.getTokenType() != root.getLeftBrace()) internalError(ClojureBundle.message("expected.element"));
+    builder.advanceLexer();
+    final int base = myDepth;
+    // the root marker is owned by parse()
+    pushForm(root == MAP ? MAP_FORM : COLLECTION_FORM, null, root, root.getRightBrace());
+    parseForms(builder, base);
+  }
+
+  /*
+   * Nested forms are tracked on an explicit stack rather than on the call stack,
+   * so that deeply nested data (generated code, EDN) neither overflows nor thrashes the latter.
+   * Frames are reused between forms, so parsing allocates nothing but markers.
+   */
+
+  private static final int COLLECTION_FORM = 0; // list, vector, set, def or ns
+  private static final int MAP_FORM = 1;
+  private static final int ENTRY_FORM = 2;      // map entry: key, then value
+  private static final int PREFIX_FORM = 3;     // quote, meta, deref etc.: exactly one nested form
+
+  private static class Form {
+    int kind;
+    PsiBuilder.Marker marker;
+    IElementType type;
+    IElementType endToken;
+    int parsed;
+  }
+
+  private final ArrayList<Form> myForms = new ArrayList<Form>();
+  private int myDepth = 0;
+
+  private void pushForm(int kind, PsiBuilder.Marker marker, IElementType type, IElementType endToken) {
+    if (myDepth == myForms.size()) {
+      myForms.add(new Form());
+    }
+    final Form form = myForms.get(myDepth++);
+    form.kind = kind;
+    form.marker = marker;
+    form.type = type;
+    form.endToken = endToken;
+    form.parsed = 0;
+  }
+
   private void parseExpression(PsiBuilder builder) {
+    final int base = myDepth;
+    startExpression(builder);
+    parseForms(builder, base);
+  }
+
+  /**
+   * Parses the forms opened above <code>base</code> depth until all of them are closed
+   */
+  private void parseForms(PsiBuilder builder, int base) {
+    while (myDepth > base) {
+      final Form form = myForms.get(myDepth - 1);
+      switch (form.kind) {
+        case COLLECTION_FORM:
+          if (atFormEnd(builder, form.endToken)) {
+            closeForm(builder, form);
+          } else {
+            startExpression(builder);
+          }
+          break;
+        case MAP_FORM:
+          if (atFormEnd(builder, RIGHT_CURLY)) {
+            closeForm(builder, form);
+          } else {
+            pushForm(ENTRY_FORM, builder.mark(), MAP_ENTRY, null);
+          }
+          break;
+        case ENTRY_FORM:
+          if (form.parsed == 0 || form.parsed == 1 && builder.getTokenType() != RIGHT_CURLY && !atTopLevelFormStart(builder)) {
+            form.parsed++;
+            startExpression(builder); // key or value
+          } else {
+            myDepth--;
+            form.marker.done(MAP_ENTRY);
+          }
+          break;
+        case PREFIX_FORM:
+          if (form.parsed == 0) {
+            form.parsed++;
+            startExpression(builder);
+          } else {
+            myDepth--;
+            form.marker.done(form.type);
+          }
+          break;
+        default:
+          internalError(ClojureBundle.message("expected.element"));
+      }
+    }
+  }
+
+  private boolean atFormEnd(PsiBuilder builder, IElementType endToken) {
+    final IElementType token = builder.getTokenType();
+    return token == endToken || token == null || atTopLevelFormStart(builder);
+  }
+
+  /**
+   * Enter: Lexer is pointed at the closing brace, at the next top-level form or at the end-of-file
+   * Exit: Lexer is pointed immediately after the closing brace
+   */
+  private void closeForm(PsiBuilder builder, Form form) {
+    myDepth--;
+    if (builder.getTokenType() != form.endToken) {
+      builder.error(ClojureBundle.message("expected.token", form.endToken.toString()));
+    } else {
+      builder.advanceLexer();
+    }
+    if (form.marker != null) {
+      form.marker.done(form.type);
+    }
+  }
+
+  /**
+   * Parses an atomic expression or opens a form on the stack
+   * Enter: Lexer is pointed at the first token of expression
+   * Exit: Lexer is pointed immediately after atomic expression or after opening token(s) of form
+   */
+  private void startExpression(PsiBuilder builder) {
     IElementType token = builder.getTokenType();
     if (LEFT_PAREN == token) {
-      parseList(builder);
+      startList(builder);
     } else if (LEFT_SQUARE == token) {
-      parseVector(builder);
+      if (!collapseDataLiteral(builder, VECTOR)) {
+        pushForm(COLLECTION_FORM, markAndAdvance(builder), VECTOR, RIGHT_SQUARE);
+      }
     } else if (LEFT_CURLY == token) {
-      parseMap(builder);
+      if (!collapseDataLiteral(builder, MAP)) {
+        pushForm(MAP_FORM, markAndAdvance(builder), MAP, RIGHT_CURLY);
+      }
     } else if (QUOTE == token) {
-      parseQuotedForm(builder);
+      pushForm(PREFIX_FORM, markAndAdvance(builder), QUOTED_FORM, null);
     } else if (BACKQUOTE == token) {
-      parseBackQuote(builder);
-    } else if (ParserUtils.lookAhead(builder, SHARP, LEFT_CURLY)) {
-      parseSet(builder);
+      pushForm(PREFIX_FORM, markAndAdvance(builder), BACKQUOTED_EXPRESSION, null);
     } else if (SHARP == token) {
-      parseSharp(builder);
+      if (ParserUtils.lookAhead(builder, SHARP, LEFT_CURLY)) {
+        startSet(builder);
+      } else {
+        pushForm(PREFIX_FORM, markAndAdvance(builder), SHARP_EXPRESSION, null);
+      }
     } else if (UP == token) {
-      parseUp(builder);
+      pushForm(PREFIX_FORM, markAndAdvance(builder), META_FORM, null);
     } else if (SHARPUP == token) {
-      parseMetadata(builder);
+      //todo add expression with metadata
+      pushForm(PREFIX_FORM, markAndAdvance(builder), METADATA, null);
     } else if (TILDA == token) {
-      parseTilda(builder);
+      pushForm(PREFIX_FORM, markAndAdvance(builder), TILDA_EXPRESSION, null);
     } else if (AT == token) {
-      parseAt(builder);
+      pushForm(PREFIX_FORM, markAndAdvance(builder), AT_EXPRESSION, null);
     } else if (TILDAAT == token) {
-      parseTildaAt(builder);
+      pushForm(PREFIX_FORM, markAndAdvance(builder), TILDAAT_EXPRESSION, null);
     } else if (symS.contains(token)) {
       parseSymbol(builder);
     } else if (COLON_SYMBOL == token) {
@@ -89,15 +227,18 @@ public class ClojureParser implements PsiParser, ClojureTokenTypes {
     }
   }
 
-  private void parseExpressions(IElementType endToken, PsiBuilder builder) {
-    for (IElementType token = builder.getTokenType(); token != endToken && token != null; token = builder.getTokenType()) {
-      parseExpression(builder);
-    }
-    if (builder.getTokenType() != endToken) {
-      builder.error(ClojureBundle.message("expected.token", endToken.toString()));
-    } else {
-      builder.advanceLexer();
-    }
+  /**
+   * Left paren in the first column is treated as a start of the next top-level form, so an unclosed form
+   * is terminated right before it and the damage stays within one top-level form.
+   */
+  private static boolean atTopLevelFormStart(PsiBuilder builder) {
+    return builder.getTokenType() == LEFT_PAREN && isTopLevelFormStart(builder.getOriginalText(), builder.getCurrentOffset());
+  }
+
+  public static boolean isTopLevelFormStart(CharSequence text, int offset) {
+    if (offset <= 0 || offset > text.length()) return false;
+    final char prev = text.charAt(offset - 1);
+    return prev == '\n' || prev == '\r';
   }
 
   private void syntaxError(PsiBuilder builder, String msg) {
@@ -139,6 +280,14 @@ public class ClojureParser implements PsiParser, ClojureTokenTypes {
       return;
     }
     builder.advanceLexer(); // eat atom
+    finishSymbol(builder, marker);
+  }
+
+  /**
+   * Enter: Lexer is pointed immediately after the first atom of symbol
+   * Exit: Lexer is pointed immediately after symbol
+   */
+  private void finishSymbol(PsiBuilder builder, PsiBuilder.Marker marker) {
     if (SEPARATORS.contains(builder.getTokenType())) {
       final PsiBuilder.Marker pred = marker.precede();
       marker.done(SYMBOL);
@@ -194,235 +343,154 @@ public class ClojureParser implements PsiParser, ClojureTokenTypes {
   }
 
   /**
-   * Enter: Lexer is pointed at '
-   * Exit: Lexer is pointed immediately after quoted value
+   * Vectors and maps at least this long, which contain nothing but data, are not parsed along with the file
    */
-  private void parseQuotedForm(PsiBuilder builder) {
-    if (builder.getTokenType() != QUOTE) internalError(ClojureBundle.message("expected.quote"));
-    final PsiBuilder.Marker mark = builder.mark();
-    builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(QUOTED_FORM);
-  }
+  public static final int DATA_LITERAL_THRESHOLD = 4 * 1024;
 
+  private final ArrayList<IElementType> myDataBraces = new ArrayList<IElementType>();
+  private final ArrayList<Integer> myDataStarts = new ArrayList<Integer>();
   /**
-   * Enter: Lexer is pointed at `
-   * Exit: Lexer is pointed immediately after quoted value
+   * Offsets of nested literals left open when the scan of an enclosing one failed. Their own scans would fail
+   * at the same token, so they are not repeated, which would cost O(size * depth) for deep data with a list inside.
    */
-  private void parseBackQuote(PsiBuilder builder) {
-    if (builder.getTokenType() != BACKQUOTE) internalError(ClojureBundle.message("expected.backquote"));
-    final PsiBuilder.Marker mark = builder.mark();
-    builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(BACKQUOTED_EXPRESSION);
-  }
+  private final TreeSet<Integer> myFailedDataLiterals = new TreeSet<Integer>();
 
   /**
-   * Enter: Lexer is pointed at #
-   * Exit: Lexer is pointed immediately after closing }
+   * Large data literal (e.g. in .edn file or in fixture) is collapsed into a chameleon node,
+   * which is parsed by {@link ClojureReparseableElementType} only when its contents are requested.
+   * Enter: Lexer is pointed at the opening brace
+   * Exit: Lexer is pointed immediately after the closing brace if literal was collapsed, otherwise is not moved
    */
-  private void parseSharp(PsiBuilder builder) {
-    if (builder.getTokenType() != SHARP) internalError(ClojureBundle.message("expected.sharp"));
-    PsiBuilder.Marker mark = builder.mark();
-    builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(SHARP_EXPRESSION);
-  }
+  private boolean collapseDataLiteral(PsiBuilder builder, IElementType type) {
+    final int start = builder.getCurrentOffset();
+    // the parser only moves forward, so earlier failures are of no use
+    myFailedDataLiterals.headSet(start).clear();
+    if (myFailedDataLiterals.contains(start)) return false;
 
-  private void parseSet(PsiBuilder builder) {
-    if (!ParserUtils.lookAhead(builder, SHARP, LEFT_CURLY)) {
-      internalError(ClojureBundle.message("expected.sharp.lcurly"));
-    }
-    PsiBuilder.Marker marker = builder.mark();
-    builder.advanceLexer();
-    assert builder.getTokenType() != null;
-    builder.eof();
-    builder.advanceLexer();
-    for (IElementType token = builder.getTokenType(); token != RIGHT_CURLY && token != null; token = builder.getTokenType()) {
-      parseExpression(builder); //entry
+    final PsiBuilder.Marker marker = builder.mark();
+    if (skipDataLiteral(builder)) {
+      if (builder.getCurrentOffset() - start >= DATA_LITERAL_THRESHOLD) {
+        marker.collapse(type);
+        return true;
+      }
+    } else {
+      myFailedDataLiterals.addAll(myDataStarts);
     }
-    advanceLexerOrEOF(builder);
-    marker.done(SET);
-
+    marker.rollbackTo();
+    return false;
   }
 
   /**
-   * Enter: Lexer is pointed at ^
-   * Exit: Lexer is pointed immediately after closing }
+   * Skips balanced form without lists, which is parsed in isolation exactly as in the context of the file,
+   * see {@link ClojureReparseableElementType#isParsable(CharSequence, com.intellij.openapi.project.Project)}
+   * Enter: Lexer is pointed at the opening brace
+   * Exit: Lexer is pointed immediately after the closing brace, or somewhere inside the form if false is returned,
+   * with offsets of the literals left open in myDataStarts
    */
-  private void parseUp(PsiBuilder builder) {
-    if (builder.getTokenType() != UP) internalError(ClojureBundle.message("expected.cup"));
-    PsiBuilder.Marker mark = builder.mark();
-    builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(META_FORM);
-  }
-
-  /**
-   * Enter: Lexer is pointed at ^
-   * Exit: Lexer is pointed immediately after closing }
-   */
-  private void parseMetadata(PsiBuilder builder) {
-    //todo add expression with metadata
-    if (builder.getTokenType() != SHARPUP) internalError(ClojureBundle.message("expected.sharp.cup"));
-    PsiBuilder.Marker mark = builder.mark();
-    builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(METADATA);
-  }
-
-  /**
-   * Enter: Lexer is pointed at ~
-   * Exit: Lexer is pointed immediately after closing }
-   */
-  private void parseTilda(PsiBuilder builder) {
-    if (builder.getTokenType() != TILDA) internalError(ClojureBundle.message("expected.tilde"));
-    PsiBuilder.Marker mark = builder.mark();
-    builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(TILDA_EXPRESSION);
+  private boolean skipDataLiteral(PsiBuilder builder) {
+    myDataBraces.clear();
+    myDataStarts.clear();
+    boolean afterModifier = false;
+    for (IElementType token = builder.getTokenType(); token != null; token = builder.getTokenType()) {
+      if (token == LEFT_PAREN || token == WRONG_STRING_LITERAL) return false;
+
+      if (token == LEFT_SQUARE || token == LEFT_CURLY) {
+        myDataBraces.add(token == LEFT_SQUARE ? RIGHT_SQUARE : RIGHT_CURLY);
+        myDataStarts.add(builder.getCurrentOffset());
+      } else if (token == RIGHT_PAREN || token == RIGHT_SQUARE || token == RIGHT_CURLY) {
+        if (afterModifier || myDataBraces.isEmpty() || myDataBraces.get(myDataBraces.size() - 1) != token) {
+          return false;
+        }
+        myDataBraces.remove(myDataBraces.size() - 1);
+        myDataStarts.remove(myDataStarts.size() - 1);
+        if (myDataBraces.isEmpty()) {
+          builder.advanceLexer();
+          return true;
+        }
+      }
+      afterModifier = MODIFIERS.contains(token);
+      builder.advanceLexer();
+    }
+    return false;
   }
 
   /**
-   * Enter: Lexer is pointed at @
-   * Exit: Lexer is pointed immediately after closing }
+   * Enter: Lexer is pointed at #
+   * Exit: Lexer is pointed immediately after opening {
    */
-  private void parseAt(PsiBuilder builder) {
-    if (builder.getTokenType() != AT) internalError(ClojureBundle.message("expected.at"));
-    PsiBuilder.Marker mark = builder.mark();
+  private void startSet(PsiBuilder builder) {
+    if (!ParserUtils.lookAhead(builder, SHARP, LEFT_CURLY)) {
+      internalError(ClojureBundle.message("expected.sharp.lcurly"));
+    }
+    PsiBuilder.Marker marker = builder.mark();
     builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(AT_EXPRESSION);
-  }
-
-  /**
-   * Enter: Lexer is pointed at ^
-   * Exit: Lexer is pointed immediately after closing }
-   */
-  private void parseTildaAt(PsiBuilder builder) {
-    if (builder.getTokenType() != TILDAAT) internalError(ClojureBundle.message("expected.tilde.at"));
-    PsiBuilder.Marker mark = builder.mark();
+    assert builder.getTokenType() != null;
     builder.advanceLexer();
-    parseExpression(builder);
-    mark.done(TILDAAT_EXPRESSION);
+    pushForm(COLLECTION_FORM, marker, SET, RIGHT_CURLY);
   }
 
   /**
    * Enter: Lexer is pointed at the opening left paren
-   * Exit: Lexer is pointed immediately after the closing right paren, or at the end-of-file
+   * Exit: Lexer is pointed immediately after the head symbol, or after the opening left paren if there is no one
    */
-  private void parseList(PsiBuilder builder) {
+  private void startList(PsiBuilder builder) {
     if (builder.getTokenType() != LEFT_PAREN) internalError(ClojureBundle.message("expected.lparen"));
     PsiBuilder.Marker marker = markAndAdvance(builder);
-    final String tokenText = builder.getTokenText();
-    if (builder.getTokenType() == symATOM && DEF_TOKENS.contains(tokenText)) {
-      parseDef(builder, marker);
-    } else if (builder.getTokenType() == symATOM && NS_TOKENS.contains(tokenText)) {
-      parseNs(builder, marker);
-    } else {
-      parseExpressions(RIGHT_PAREN, builder);
-      marker.done(LIST);
-    }
-  }
-
-  /**
-   * Enter: Lexer is pointed at the opening left square
-   * Exit: Lexer is pointed immediately after the closing right paren, or at the end-of-file
-   */
-  private void parseVector(PsiBuilder builder) {
-    PsiBuilder.Marker marker = markAndAdvance(builder);
-    parseExpressions(RIGHT_SQUARE, builder);
-    marker.done(VECTOR);
-  }
-
-  /**
-   * Enter: Lexer is pointed at the opening left paren
-   * Exit: Lexer is pointed immediately after the closing right paren, or at the end-of-file
-   */
-  private void parseMap(PsiBuilder builder) {
-    if (builder.getTokenType() != LEFT_CURLY) internalError(ClojureBundle.message("expected.lcurly"));
-    PsiBuilder.Marker marker = markAndAdvance(builder);
-    for (IElementType token = builder.getTokenType(); token != RIGHT_CURLY && token != null; token = builder.getTokenType()) {
-      PsiBuilder.Marker entry = builder.mark();
-      parseExpression(builder); // key
-      parseExpression(builder); // value
-      entry.done(MAP_ENTRY);
-    }
-    if (builder.getTokenType() != RIGHT_CURLY) {
-      builder.error(ClojureBundle.message("expected.token", RIGHT_CURLY.toString()));
-    } else {
-      advanceLexerOrEOF(builder);
+    IElementType type = LIST;
+    if (builder.getTokenType() == symATOM) {
+      // def and ns forms are recognized by their head atom, the text of which is compared in place
+      final CharSequence text = builder.getOriginalText();
+      final int start = builder.getCurrentOffset();
+      final PsiBuilder.Marker head = builder.mark();
+      builder.advanceLexer(); // eat atom
+      type = getListType(text, start, getAtomEnd(text, start, builder.getCurrentOffset()));
+      finishSymbol(builder, head);
     }
-    marker.done(MAP);
+    pushForm(COLLECTION_FORM, marker, type, RIGHT_PAREN);
   }
 
   /**
-   * Enter: Lexer is pointed at the def
-   * Exit: Lexer is pointed immediately after the closing right paren, or at the end-of-file
+   * Atom may be followed either by the next token immediately or by skipped whitespace and comments,
+   * none of which may occur within an atom
    */
-  private void parseDef(PsiBuilder builder, PsiBuilder.Marker marker) {
-    final String text = builder.getTokenText();
-    if (!DEF_TOKENS.contains(text) || builder.getTokenType() != symATOM) {
-      internalError(ClojureBundle.message("expected.element"));
-    }
-
-    parseSymbol(builder);
-    for (IElementType token = builder.getTokenType(); token != RIGHT_PAREN && token != null; token = builder.getTokenType()) {
-      parseExpression(builder);
-    }
-
-    if (builder.getTokenType() != RIGHT_PAREN) {
-      builder.error(ClojureBundle.message("expected.token", RIGHT_PAREN.toString()));
-    } else {
-      advanceLexerOrEOF(builder);
-    }
-    marker.done("defmethod".equals(text) ? ClojureElementTypes.DEFMETHOD : ClojureElementTypes.DEF);
+  private static int getAtomEnd(CharSequence text, int start, int nextTokenStart) {
+    int end = start;
+    while (end < nextTokenStart && !isSkippedChar(text.charAt(end))) end++;
+    return end;
   }
 
-  private void parseNs(PsiBuilder builder, PsiBuilder.Marker marker) {
-    final String text = builder.getTokenText();
-    if (!NS_TOKENS.contains(text) || builder.getTokenType() != symATOM) {
-      internalError(ClojureBundle.message("expected.element"));
-    }
-
-    parseSymbol(builder);
-    for (IElementType token = builder.getTokenType(); token != RIGHT_PAREN && token != null; token = builder.getTokenType()) {
-      parseExpression(builder);
-    }
-
-    if (builder.getTokenType() != RIGHT_PAREN) {
-      builder.error(ClojureBundle.message("expected.token", RIGHT_PAREN.toString()));
-    } else {
-      advanceLexerOrEOF(builder);
-    }
-    if (CREATE_NS.equals(text)) marker.done(ClojureElementTypes.CREATE_NS);
-    else if (IN_NS.equals(text)) marker.done(ClojureElementTypes.IN_NS);
-    else marker.done(ClojureElementTypes.NS);
+  private static boolean isSkippedChar(char c) {
+    return Character.isWhitespace(c) || c == ',' || c == ';';
   }
 
-
+  private static final String[] FORM_HEADS = {
+      ClojureSpecialFormTokens.tDEF, ClojureSpecialFormTokens.tDEFN, ClojureSpecialFormTokens.tDEFN_DASH,
+      ClojureSpecialFormTokens.tDEFMACRO, ClojureSpecialFormTokens.tDEFMETHOD, ClojureSpecialFormTokens.tDEFMULTI,
+      ClojureSpecialFormTokens.tDEFONCE, ClojureSpecialFormTokens.tDEFSTRUCT, ClojureSpecialFormTokens.tDEFINLINE,
+      NS, IN_NS, CREATE_NS
+  };
+  private static final IElementType[] FORM_TYPES = {
+      DEF, DEF, DEF,
+      DEF, DEFMETHOD, DEF,
+      DEF, DEF, DEF,
+      ClojureElementTypes.NS, ClojureElementTypes.IN_NS, ClojureElementTypes.CREATE_NS
+  };
 
   /**
-   * Enter: Lexer is pointed at the opening left square
-   * Exit: Lexer is pointed immediately after the closing right paren, or at the end-of-file
+   * @return element type of the list form with head atom at [start, end) of text
    */
-  private void parseBindings(PsiBuilder builder) {
-    if (builder.getTokenType() != LEFT_SQUARE) internalError(ClojureBundle.message("expected.lsquare"));
-
-    PsiBuilder.Marker marker = markAndAdvance(builder);
-    for (IElementType token = builder.getTokenType(); token != RIGHT_SQUARE && token != null; token = builder.getTokenType()) {
-      parseExpression(builder); // variables being defined, values or metadata
+  public static IElementType getListType(CharSequence text, int start, int end) {
+    for (int i = 0; i < FORM_HEADS.length; i++) {
+      if (regionEquals(text, start, end, FORM_HEADS[i])) return FORM_TYPES[i];
     }
-    advanceLexerOrEOF(builder);
-    marker.done(BINDINGS);
+    return LIST;
   }
 
-  /**
-   * Enter: Lexer is pointed after the 'let'
-   * Exit: Lexer is pointed immediately after the closing right paren, or at the end-of-file
-   */
-  private void parseList(PsiBuilder builder, PsiBuilder.Marker marker) {
-    parseExpressions(RIGHT_PAREN, builder);
-    marker.done(LIST);
+  private static boolean regionEquals(CharSequence text, int start, int end, String s) {
+    if (end - start != s.length()) return false;
+    for (int i = 0; i < s.length(); i++) {
+      if (text.charAt(start + i) != s.charAt(i)) return false;
+    }
+    return true;
   }
 }
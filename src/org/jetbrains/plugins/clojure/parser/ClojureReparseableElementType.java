@@ -0,0 +1,114 @@
+package org.jetbrains.plugins.clojure.parser;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.impl.source.tree.LazyParseableElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+
+import java.util.ArrayList;
+
+/**
+ * Element type for braced forms (lists, vectors and maps) which may be re-parsed in isolation.
+ * After an edit only the innermost enclosing form is re-lexed and re-parsed, the rest of the file tree is kept.
+ * <p/>
+ * Def and ns forms carry stubs, so they cannot be chameleons themselves: an edit directly in their header
+ * falls back to the whole-file reparse, whereas edits in their bodies stay within the nested form.
+ */
+public class ClojureReparseableElementType extends IReparseableElementType implements ClojureTokenTypes {
+
+  private final IElementType myLeftBrace;
+  private final IElementType myRightBrace;
+
+  public ClojureReparseableElementType(@NonNls @NotNull String debugName,
+                                       @NotNull IElementType leftBrace,
+                                       @NotNull IElementType rightBrace) {
+    super(debugName, ClojureFileType.CLOJURE_LANGUAGE);
+    myLeftBrace = leftBrace;
+    myRightBrace = rightBrace;
+  }
+
+  @NotNull
+  public IElementType getLeftBrace() {
+    return myLeftBrace;
+  }
+
+  @NotNull
+  public IElementType getRightBrace() {
+    return myRightBrace;
+  }
+
+  public ASTNode createNode(CharSequence text) {
+    return new LazyParseableElement(this, text);
+  }
+
+  /**
+   * @return true for a data literal collapsed by ClojureParser, the contents of which have not been parsed yet
+   */
+  public static boolean isCollapsed(ASTNode node) {
+    return node instanceof LazyParseableElement && !((LazyParseableElement) node).isParsed();
+  }
+
+  /**
+   * The buffer may be re-parsed alone if it is exactly one balanced form of this type,
+   * i.e. ClojureParser builds the same node for it in the context of the whole file.
+   */
+  @Override
+  public boolean isParsable(CharSequence buffer, Project project) {
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(buffer);
+    if (lexer.getTokenType() != myLeftBrace) return false;
+
+    // (def ...) and (ns ...) forms have their own element types
+    if (myLeftBrace == LEFT_PAREN && startsWithSpecialForm(lexer, buffer)) return false;
+
+    final ArrayList<IElementType> braces = new ArrayList<IElementType>();
+    boolean afterModifier = false;
+    for (IElementType token = lexer.getTokenType(); token != null; token = lexer.getTokenType()) {
+      if (WHITESPACE_SET.contains(token) || COMMENTS.contains(token)) {
+        lexer.advance();
+        continue;
+      }
+      if (token == WRONG_STRING_LITERAL) return false;
+
+      if (token == LEFT_PAREN) {
+        // nested form would be terminated there, see ClojureParser#isTopLevelFormStart
+        if (ClojureParser.isTopLevelFormStart(buffer, lexer.getTokenStart())) return false;
+        braces.add(RIGHT_PAREN);
+      } else if (token == LEFT_SQUARE) {
+        braces.add(RIGHT_SQUARE);
+      } else if (token == LEFT_CURLY) {
+        braces.add(RIGHT_CURLY);
+      } else if (token == RIGHT_PAREN || token == RIGHT_SQUARE || token == RIGHT_CURLY) {
+        // Quoted closing brace or mismatched one is swallowed by parser as an error
+        if (afterModifier || braces.isEmpty() || braces.remove(braces.size() - 1) != token) return false;
+        if (braces.isEmpty()) {
+          lexer.advance();
+          return lexer.getTokenType() == null;
+        }
+      }
+      afterModifier = ClojureElementTypes.MODIFIERS.contains(token);
+      lexer.advance();
+    }
+    return false;
+  }
+
+  private static boolean startsWithSpecialForm(Lexer lexer, CharSequence buffer) {
+    lexer.advance();
+    while (WHITESPACE_SET.contains(lexer.getTokenType()) || COMMENTS.contains(lexer.getTokenType())) {
+      lexer.advance();
+    }
+    if (lexer.getTokenType() == symATOM &&
+        ClojureParser.getListType(buffer, lexer.getTokenStart(), lexer.getTokenEnd()) != ClojureElementTypes.LIST) {
+      return true;
+    }
+    lexer.start(buffer);
+    return false;
+  }
+}
@@ -25,4 +25,25 @@ public interface ClDef extends ClList, PsiNamedElement, NavigationItem {
 
   @Nullable
   ClMetadata getMeta();
+
+  /**
+   * @return Type hint given by ^Type or :tag metadata
+   */
+  @Nullable
+  String getTag();
+
+  /**
+   * @return Name of the namespace in effect at the definition, as set by preceding ns or in-ns form
+   */
+  @Nullable
+  String getNamespace();
+
+  /**
+   * @return true for defn- and for definitions with :private metadata
+   */
+  boolean isPrivate();
+
+  boolean isDynamic();
+
+  boolean isMacro();
 }
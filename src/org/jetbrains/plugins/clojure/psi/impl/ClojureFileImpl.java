@@ -6,32 +6,54 @@ import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Condition;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.scope.NameHint;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.stubs.StubElement;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.io.StringRef;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.list.ClojureLocalScopes;
 import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
 import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiFactory;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
 import org.jetbrains.plugins.clojure.psi.util.ClojureTextUtil;
 import org.jetbrains.plugins.clojure.psi.impl.synthetic.ClSyntheticClassImpl;
+import org.jetbrains.plugins.clojure.psi.impl.ns.ClojureNamespaceSymbolTable;
 import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureUnresolvedNameCache;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+import org.jetbrains.plugins.clojure.psi.resolve.processors.SymbolResolveProcessor;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
 import org.jetbrains.plugins.clojure.parser.ClojureParser;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * User: peter
@@ -48,6 +70,10 @@ import java.util.List;
  * limitations under the License.
  */
 public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
+  private static final Key<CachedValue<TopLevelForms>> TOP_LEVEL_FORMS = Key.create("clojure.top.level.forms");
+  private static final Set<String> DECLARING_FORMS = new HashSet<String>(Arrays.asList(
+      ListDeclarations.IMPORT, ListDeclarations.DECLARE));
+
   private PsiElement myContext = null;
   private PsiClass myClass;
   private boolean myScriptClassInitialized = false;
@@ -71,7 +97,13 @@ public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
 
   public PsiClass getDefinedClass() {
     if (!myScriptClassInitialized) {
-      if (isScript()) {
+      final StubElement stub = getStub();
+      if (stub instanceof ClFileStub) {
+        final String fqn = StringRef.toString(((ClFileStub) stub).getClassQualifiedName());
+        if (fqn != null) {
+          myClass = new ClSyntheticClassImpl(this, fqn);
+        }
+      } else if (isScript()) {
         myClass = new ClSyntheticClassImpl(this);
       }
 
@@ -120,6 +152,7 @@ public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
   protected PsiFileImpl clone() {
     final ClojureFileImpl clone = (ClojureFileImpl) super.clone();
     clone.myContext = myContext;
+    clone.putUserData(TOP_LEVEL_FORMS, null);
     return clone;
   }
 
@@ -192,6 +225,11 @@ public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
   }
 
   public boolean isClassDefiningFile() {
+    final StubElement stub = getStub();
+    if (stub instanceof ClFileStub) {
+      return ((ClFileStub) stub).isClassDefinition();
+    }
+
     final ClList ns = ClojurePsiUtil.findFormByName(this, "ns");
     if (ns == null) return false;
     final ClSymbol first = ns.findFirstChildByClass(ClSymbol.class);
@@ -241,30 +279,58 @@ public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
 
   @Override
   public boolean processDeclarations(@NotNull PsiScopeProcessor processor, @NotNull ResolveState state, PsiElement lastParent, @NotNull PsiElement place) {
+    //Process locals of the top-level form containing the place
+    if (lastParent instanceof ClojurePsiElement && lastParent.getParent() == this &&
+        !ClojureLocalScopes.processLocals(processor, (ClojurePsiElement) lastParent, place)) {
+      return false;
+    }
+
+    final NameHint nameHint = processor.getHint(NameHint.KEY);
+    final String name = nameHint == null ? null : nameHint.getName(state);
 
     //Process precedent read forms
-    ResolveUtil.processChildren(this, processor, state, lastParent, place);
+    if (name != null) {
+      processTopLevelForms(processor, state, lastParent, place, name);
+    } else {
+      ResolveUtil.processChildren(this, processor, state, lastParent, place);
+    }
+
+    // Nothing below depends on the place, so a name found nowhere here is not looked up again till the next change
+    final ClojureUnresolvedNameCache misses = ClojureUnresolvedNameCache.getInstance(getProject());
+    if (name != null && misses.isUnresolvedAtFileLevel(name)) {
+      return super.processDeclarations(processor, state, lastParent, place);
+    }
+    final boolean mayCacheMiss = name != null && processor instanceof SymbolResolveProcessor &&
+        !((SymbolResolveProcessor) processor).isOnlyJava() && !((SymbolResolveProcessor) processor).hasCandidates();
 
     final JavaPsiFacade facade = JavaPsiFacade.getInstance(getProject());
 
-    // Add all java.lang classes
-    final PsiPackage javaLang = facade.findPackage(ClojurePsiUtil.JAVA_LANG);
-    if (javaLang != null) {
-      for (PsiClass clazz : javaLang.getClasses()) {
-        if (!ResolveUtil.processElement(processor, clazz)) {
-          return false;
+    if (name != null) {
+      // Neither class nor package names processed below contain dots
+      if (name.length() > 0 && name.indexOf('.') < 0 && !processJavaElementsByName(processor, facade, name)) {
+        return false;
+      }
+    } else {
+      // Add all java.lang classes
+      final PsiPackage javaLang = facade.findPackage(ClojurePsiUtil.JAVA_LANG);
+      if (javaLang != null) {
+        for (PsiClass clazz : javaLang.getClasses()) {
+          if (!ResolveUtil.processElement(processor, clazz)) {
+            return false;
+          }
         }
       }
-    }
 
-    //Add top-level package names
-    final PsiPackage rootPackage = JavaPsiFacade.getInstance(getProject()).findPackage("");
-    if (rootPackage != null) {
-      rootPackage.processDeclarations(processor, state, null, place);
+      //Add top-level package names
+      final PsiPackage rootPackage = facade.findPackage("");
+      if (rootPackage != null) {
+        rootPackage.processDeclarations(processor, state, null, place);
+      }
     }
 
     // Add all symbols from default namespaces
-    for (PsiNamedElement element : NamespaceUtil.getDefaultDefinitions(getProject())) {
+    final PsiNamedElement[] defaults = ClojureNamespaceSymbolTable.getInstance(getProject()).getDefaultDefinitions(name);
+    for (PsiNamedElement element : defaults) {
       if (PsiTreeUtil.findCommonParent(element, place) != element && !ResolveUtil.processElement(processor, element)) {
         return false;
       }
@@ -277,9 +343,102 @@ public class ClojureFileImpl extends PsiFileBase implements ClojureFile {
       }
     }
 
+    // definitions skipped as containing the place do not count as a miss
+    if (mayCacheMiss && defaults.length == 0 && !((SymbolResolveProcessor) processor).hasCandidates()) {
+      misses.markUnresolvedAtFileLevel(name);
+    }
+
     return super.processDeclarations(processor, state, lastParent, place);
   }
 
+  /**
+   * Same as ResolveUtil.processChildren() for the forms preceding lastParent, but definitions are taken
+   * from the table by name, and only ns, import and declare forms are asked to process their declarations
+   */
+  private void processTopLevelForms(PsiScopeProcessor processor, ResolveState state, PsiElement lastParent,
+                                    PsiElement place, String name) {
+    final TopLevelForms forms = getTopLevelForms();
+    final int limit = lastParent == null ? Integer.MAX_VALUE : lastParent.getTextRange().getStartOffset();
+
+    for (int i = forms.others.size() - 1; i >= 0; i--) {
+      final ClList form = forms.others.get(i);
+      if (form.getTextRange().getStartOffset() < limit && PsiTreeUtil.findCommonParent(place, form) != form &&
+          !form.processDeclarations(processor, state, null, place)) {
+        return;
+      }
+    }
+
+    final List<ClDef> defs = forms.defs.get(name);
+    if (defs == null) return;
+    for (int i = defs.size() - 1; i >= 0; i--) {
+      final ClDef def = defs.get(i);
+      if (def.getTextRange().getStartOffset() < limit && PsiTreeUtil.findCommonParent(place, def) != def &&
+          !ResolveUtil.processElement(processor, def)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Top-level forms of the file, which declare something when processed from outside, in the order of the text:
+   * definitions by name and ns, import and declare forms. Other forms, e.g. deftest or comment, declare nothing,
+   * so resolve of every symbol in the file shares the table instead of walking all the forms.
+   */
+  private static class TopLevelForms {
+    final Map<String, List<ClDef>> defs = new HashMap<String, List<ClDef>>();
+    final List<ClList> others = new ArrayList<ClList>();
+  }
+
+  private TopLevelForms getTopLevelForms() {
+    CachedValue<TopLevelForms> forms = getUserData(TOP_LEVEL_FORMS);
+    if (forms == null) {
+      forms = CachedValuesManager.getManager(getProject()).createCachedValue(new CachedValueProvider<TopLevelForms>() {
+        public Result<TopLevelForms> compute() {
+          return Result.create(buildTopLevelForms(), PsiModificationTracker.MODIFICATION_COUNT);
+        }
+      }, false);
+      forms = putUserDataIfAbsent(TOP_LEVEL_FORMS, forms);
+    }
+    return forms.getValue();
+  }
+
+  private TopLevelForms buildTopLevelForms() {
+    final TopLevelForms forms = new TopLevelForms();
+    for (PsiElement child = getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child instanceof ClDef) {
+        final String defName = ((ClDef) child).getName();
+        if (defName == null) continue;
+        List<ClDef> list = forms.defs.get(defName);
+        if (list == null) {
+          list = new ArrayList<ClDef>(1);
+          forms.defs.put(defName, list);
+        }
+        list.add((ClDef) child);
+      } else if (child instanceof ClNs ||
+          child instanceof ClList && DECLARING_FORMS.contains(((ClList) child).getHeadText())) {
+        forms.others.add((ClList) child);
+      }
+    }
+    return forms;
+  }
+
+  /**
+   * Same as enumeration of java.lang classes and of the root package contents, but for the single name
+   */
+  private boolean processJavaElementsByName(PsiScopeProcessor processor, JavaPsiFacade facade, String name) {
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
+    final PsiClass langClass = facade.findClass(ClojurePsiUtil.JAVA_LANG + "." + name, scope);
+    if (langClass != null && !ResolveUtil.processElement(processor, langClass)) {
+      return false;
+    }
+    final PsiPackage pack = facade.findPackage(name);
+    if (pack != null && !ResolveUtil.processElement(processor, pack)) {
+      return false;
+    }
+    final PsiClass rootClass = facade.findClass(name, scope);
+    return rootClass == null || ResolveUtil.processElement(processor, rootClass);
+  }
+
   public PsiElement setClassName(@NonNls String s) {
     //todo implement me!
     return null;
@@ -6,11 +6,13 @@ import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.util.Iconable;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.ResolveState;
 import com.intellij.psi.StubBasedPsiElement;
 import com.intellij.psi.impl.source.tree.LeafPsiElement;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
 import org.jetbrains.annotations.NonNls;
@@ -18,21 +20,32 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.ClojureIcons;
 import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureSpecialFormTokens;
 import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
 import org.jetbrains.plugins.clojure.psi.api.*;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ClMetaForm;
 import org.jetbrains.plugins.clojure.psi.impl.list.ClListBaseImpl;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
 
 import javax.swing.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * @author ilyas
  */
 public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubBasedPsiElement<ClDefStub> {
+  private static final String TAG_KEY = "tag";
+  private static final Set<String> FN_DEFINITIONS = new HashSet<String>(Arrays.asList(
+      ClojureSpecialFormTokens.tDEFN, ClojureSpecialFormTokens.tDEFN_DASH, ClojureSpecialFormTokens.tDEFMACRO));
+
   public ClDefImpl(ClDefStub stub, @NotNull IStubElementType nodeType) {
     super(stub, nodeType);
   }
@@ -57,6 +70,11 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
   }
 
   public String getDefinedName() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getName();
+    }
+
     ClSymbol sym = getNameSymbol();
     if (sym != null) {
       String name = sym.getText();
@@ -74,34 +92,9 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
 
   @Override
   public boolean processDeclarations(@NotNull PsiScopeProcessor processor, @NotNull ResolveState state, PsiElement lastParent, @NotNull PsiElement place) {
-    // Do not resolve identifier
-    if (lastParent != null && lastParent.getParent() == this && lastParent instanceof ClSymbol) return true;
-    //process parameters
-    if (lastParent != null && lastParent.getParent() == this) {
-      final ClVector paramVector = findChildByClass(ClVector.class);
-      if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getAllSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
-      }
-      // for recursive functions
-      if (getNameSymbol() != null && lastParent != getNameSymbol() && !ResolveUtil.processElement(processor, getNameSymbol())) return false;
-
-      // overloaded function
-      else if (lastParent instanceof ClList) {
-        ClList list = (ClList) lastParent;
-        final ClVector params = list.findFirstChildByClass(ClVector.class);
-        if (params != null) {
-          for (ClSymbol symbol : params.getAllSymbols()) {
-            if (!ResolveUtil.processElement(processor, symbol)) return false;
-          }
-        }
-      }
-
-      return true;
-    } else {
-      return ResolveUtil.processElement(processor, this);
-    }
+    // name and parameters are processed by ClojureLocalScopes for the places inside
+    if (lastParent != null && lastParent.getParent() == this) return true;
+    return ResolveUtil.processElement(processor, this);
   }
 
   @Override
@@ -141,6 +134,11 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
   }
 
   public String getDocString() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getDocString();
+    }
+
     PsiElement element = getSecondNonLeafElement();
     if (element == null) return null;
     element = element.getNextSibling();
@@ -219,8 +217,126 @@ public class ClDefImpl extends ClListBaseImpl<ClDefStub> implements ClDef, StubB
   }
 
   public String getParameterString() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getParameterString();
+    }
+
+    // value of (def x [...]) is not a parameter vector
+    final String head = getHeadText();
+    if (!FN_DEFINITIONS.contains(head) && !ClojureSpecialFormTokens.tDEFMETHOD.equals(head)) return "";
+
     final ClVector params = findChildByClass(ClVector.class);
-    return params == null ? "" : params.getText();
+    if (params != null) return params.getText();
+
+    // overloaded function
+    final StringBuffer buffer = new StringBuffer();
+    for (PsiElement element : getChildren()) {
+      if (element instanceof ClList) {
+        final ClVector arity = ((ClList) element).findFirstChildByClass(ClVector.class);
+        if (arity != null) {
+          if (buffer.length() > 0) buffer.append(" ");
+          buffer.append(arity.getText());
+        }
+      }
+    }
+    return buffer.toString();
+  }
+
+  @Nullable
+  public String getTag() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getTag();
+    }
+    return getMetaValue(TAG_KEY);
+  }
+
+  @Nullable
+  public String getNamespace() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.getNamespace();
+    }
+    // same lookup as ClDefElementType.findNamespace() does over stubs
+    for (PsiElement element = this; element != null && !(element instanceof PsiFile); element = element.getParent()) {
+      for (PsiElement sibling = element.getPrevSibling(); sibling != null; sibling = sibling.getPrevSibling()) {
+        if (sibling instanceof ClNs) {
+          final IElementType type = sibling.getNode().getElementType();
+          if (type == ClojureElementTypes.NS || type == ClojureElementTypes.IN_NS) {
+            return ((ClNs) sibling).getDefinedName();
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  public boolean isPrivate() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.isPrivate();
+    }
+    return ClojureSpecialFormTokens.tDEFN_DASH.equals(getHeadText()) || "true".equals(getMetaValue("private"));
+  }
+
+  public boolean isDynamic() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.isDynamic();
+    }
+    return "true".equals(getMetaValue("dynamic"));
+  }
+
+  public boolean isMacro() {
+    final ClDefStub stub = getStub();
+    if (stub != null) {
+      return stub.isMacro();
+    }
+    return ClojureSpecialFormTokens.tDEFMACRO.equals(getHeadText());
+  }
+
+  /**
+   * Looks through ^:key, ^Tag, ^{...} and #^{...} forms before the name
+   * and through the attribute map of defn and defmacro.
+   *
+   * @return text of the metadata value for the given key
+   */
+  @Nullable
+  private String getMetaValue(@NotNull String key) {
+    final ClSymbol name = getNameSymbol();
+    boolean afterName = false;
+    for (PsiElement element : getChildren()) {
+      if (!afterName && (element instanceof ClMetaForm || element instanceof ClMetadata)) {
+        final String value = getMetaFormValue(element, key);
+        if (value != null) return value;
+      } else if (element == name) {
+        afterName = true;
+      } else if (afterName && element instanceof ClMap) {
+        if (!FN_DEFINITIONS.contains(getHeadText())) return null;
+        final ClojurePsiElement value = ((ClMap) element).getValue(key);
+        return value == null ? null : value.getText();
+      } else if (element instanceof ClVector || element instanceof ClList) {
+        // parameters or the body reached
+        if (afterName) return null;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static String getMetaFormValue(PsiElement meta, String key) {
+    final PsiElement[] children = meta.getChildren();
+    if (children.length == 0) return null;
+    final PsiElement form = children[0];
+    if (form instanceof ClKeyword) {
+      return key.equals(StringUtil.trimStart(form.getText(), ":")) ? "true" : null;
+    }
+    if (form instanceof ClMap) {
+      final ClojurePsiElement value = ((ClMap) form).getValue(key);
+      return value == null ? null : value.getText();
+    }
+    return TAG_KEY.equals(key) ? form.getText() : null;
   }
 
   public ClMetadata getMeta() {
@@ -2,7 +2,6 @@ package org.jetbrains.plugins.clojure.psi.impl.javaView;
 
 import com.intellij.openapi.components.ProjectComponent;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Condition;
 import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.PsiShortNamesCache;
@@ -15,7 +14,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.impl.ClojurePsiManager;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.compiler.ClojureCompilerSettings;
-import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureFullScriptNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureScriptClassIndex;
 
 import java.util.Collection;
 import java.util.List;
@@ -72,15 +71,9 @@ public class ClojureClassFinder extends PsiElementFinder {
   }
 
   private Collection<PsiClass> getScriptClassesByFQName(final String name, final GlobalSearchScope scope) {
-    Collection<ClojureFile> scripts = StubIndex.getInstance().get(ClojureFullScriptNameIndex.KEY, name.hashCode(), myProject, scope);
-
-    scripts = ContainerUtil.findAll(scripts, new Condition<ClojureFile>() {
-      public boolean value(final ClojureFile clojureFile) {
-        final PsiClass clazz = clojureFile.getDefinedClass();
-        return clojureFile.isClassDefiningFile() && clazz != null && name.equals(clazz.getQualifiedName());
-      }
-    });
-    return ContainerUtil.map(scripts, new Function<ClojureFile, PsiClass>() {
+    // the key is the exact class name and the class is created from the file stub
+    final Collection<ClojureFile> scripts = StubIndex.getInstance().get(ClojureScriptClassIndex.KEY, name, myProject, scope);
+    return ContainerUtil.mapNotNull(scripts, new Function<ClojureFile, PsiClass>() {
       public PsiClass fun(final ClojureFile clojureFile) {
         return clojureFile.getDefinedClass();
       }
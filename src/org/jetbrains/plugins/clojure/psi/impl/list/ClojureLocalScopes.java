@@ -0,0 +1,361 @@
+package org.jetbrains.plugins.clojure.psi.impl.list;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.UserDataHolderEx;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.scope.PsiScopeProcessor;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.parser.ClojureReparseableElementType;
+import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
+import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.ClMap;
+import org.jetbrains.plugins.clojure.psi.api.ClMetadata;
+import org.jetbrains.plugins.clojure.psi.api.ClVector;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ClMapEntry;
+import org.jetbrains.plugins.clojure.psi.impl.ClMetaForm;
+import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+
+import java.util.*;
+
+/**
+ * Scopes of local bindings of a top-level form: let-like forms, loop, fn, letfn and parameters of definitions,
+ * with vector and map destructuring (:keys, :strs, :syms, :as). Every scope is the text range, where its bindings
+ * are visible, e.g. a let binding is visible after its init expression, so scopes are either nested or disjoint
+ * and lookup by offset descends the tree by binary search.
+ * Trees are built once per top-level form and dropped on any PSI change.
+ */
+public class ClojureLocalScopes {
+  private static final Key<CachedValue<Scope>> SCOPES = Key.create("clojure.local.scopes");
+
+  private static final String LETFN = "letfn";
+  private static final String AS = ":as";
+  private static final String AMPERSAND = "&";
+  private static final Set<String> KEYS = new HashSet<String>(Arrays.asList(":keys", ":strs", ":syms"));
+  /**
+   * Forms binding symbols to values of init expressions, unlike for or with-local-vars
+   */
+  private static final Set<String> VALUE_BINDINGS = new HashSet<String>(Arrays.asList(
+      ListDeclarations.LET, ListDeclarations.WHEN_LET, ListDeclarations.IF_LET, ListDeclarations.LOOP, ListDeclarations.WITH_OPEN
+  ));
+
+  private ClojureLocalScopes() {
+  }
+
+  private static class Scope {
+    final int start;
+    final int end;
+    final List<ClSymbol> bindings;
+    /**
+     * False for names of definitions, which are visible inside them, but do not hide outer declarations
+     */
+    final boolean local;
+    final List<Scope> children = new ArrayList<Scope>();
+    /**
+     * Local bindings of the whole tree, set for its root only
+     */
+    Set<ClSymbol> locals;
+
+    Scope(int start, int end, List<ClSymbol> bindings, boolean local) {
+      this.start = start;
+      this.end = end;
+      this.bindings = bindings;
+      this.local = local;
+    }
+
+    boolean contains(int offset) {
+      return start <= offset && offset < end;
+    }
+
+    @Nullable
+    Scope findChild(int offset) {
+      int low = 0;
+      int high = children.size() - 1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        if (children.get(mid).start <= offset) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high >= 0 && children.get(high).contains(offset) ? children.get(high) : null;
+    }
+  }
+
+  /**
+   * Processes bindings visible at the place, innermost first
+   *
+   * @param form Top-level form containing the place
+   */
+  public static boolean processLocals(@NotNull PsiScopeProcessor processor, @NotNull ClojurePsiElement form, @NotNull PsiElement place) {
+    final Scope root = getScopes(form);
+    // binding symbol refers to itself
+    if (place instanceof ClSymbol && root.locals.contains(place) && !ResolveUtil.processElement(processor, (ClSymbol) place)) {
+      return false;
+    }
+
+    final int offset = place.getTextRange().getStartOffset();
+    final ArrayList<Scope> path = new ArrayList<Scope>();
+    for (Scope scope = root.findChild(offset); scope != null; scope = scope.findChild(offset)) {
+      path.add(scope);
+    }
+    for (int i = path.size() - 1; i >= 0; i--) {
+      for (ClSymbol binding : path.get(i).bindings) {
+        if (!ResolveUtil.processElement(processor, binding)) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true for symbols bound by let-like forms, loop, fn, letfn and parameter vectors
+   */
+  public static boolean isLocal(@NotNull ClSymbol symbol) {
+    final ClojurePsiElement form = getTopLevelForm(symbol);
+    return form != null && getScopes(form).locals.contains(symbol);
+  }
+
+  /**
+   * @return Init expression of a symbol bound by let, loop and alike, null for parameters and destructuring
+   */
+  @Nullable
+  public static PsiElement getInitExpression(@NotNull ClSymbol binding) {
+    final PsiElement vector = binding.getParent();
+    if (!(vector instanceof ClVector) || !(vector.getParent() instanceof ClList)) return null;
+    final ClList list = (ClList) vector.getParent();
+    if (!VALUE_BINDINGS.contains(list.getHeadText()) || list.findFirstChildByClass(ClVector.class) != vector) return null;
+
+    final List<PsiElement> forms = getForms(vector);
+    final int index = forms.indexOf(binding);
+    return index % 2 == 0 && index + 1 < forms.size() ? forms.get(index + 1) : null;
+  }
+
+  @Nullable
+  private static ClojurePsiElement getTopLevelForm(PsiElement element) {
+    PsiElement run = element;
+    while (run != null && !(run.getParent() instanceof PsiFile)) {
+      run = run.getParent();
+    }
+    return run instanceof ClojurePsiElement ? (ClojurePsiElement) run : null;
+  }
+
+  private static Scope getScopes(final ClojurePsiElement form) {
+    CachedValue<Scope> scopes = form.getUserData(SCOPES);
+    if (scopes == null) {
+      scopes = CachedValuesManager.getManager(form.getProject()).createCachedValue(new CachedValueProvider<Scope>() {
+        public Result<Scope> compute() {
+          return Result.create(buildTree(form), PsiModificationTracker.MODIFICATION_COUNT);
+        }
+      }, false);
+      scopes = ((UserDataHolderEx) form).putUserDataIfAbsent(SCOPES, scopes);
+    }
+    return scopes.getValue();
+  }
+
+  private static Scope buildTree(ClojurePsiElement form) {
+    final List<Scope> scopes = new ArrayList<Scope>();
+    collectScopes(form, scopes);
+
+    // outer scopes first, so that each scope is added to the innermost one containing it
+    Collections.sort(scopes, new Comparator<Scope>() {
+      public int compare(Scope s1, Scope s2) {
+        return s1.start != s2.start ? s1.start - s2.start : s2.end - s1.end;
+      }
+    });
+    final TextRange range = form.getTextRange();
+    final Scope root = new Scope(range.getStartOffset(), range.getEndOffset(), Collections.<ClSymbol>emptyList(), false);
+    root.locals = new HashSet<ClSymbol>();
+    final LinkedList<Scope> stack = new LinkedList<Scope>();
+    stack.push(root);
+    for (Scope scope : scopes) {
+      while (stack.peek() != root && stack.peek().end < scope.end) {
+        stack.pop();
+      }
+      stack.peek().children.add(scope);
+      stack.push(scope);
+      if (scope.local) {
+        root.locals.addAll(scope.bindings);
+      }
+    }
+    return root;
+  }
+
+  private static void collectScopes(PsiElement element, List<Scope> scopes) {
+    if (element instanceof ClDef) {
+      addDefScopes((ClDef) element, scopes);
+    } else if (element instanceof ClList) {
+      final String headText = ((ClList) element).getHeadText();
+      if (ListDeclarations.FN.equals(headText)) {
+        addFnScopes((ClList) element, scopes);
+      } else if (LETFN.equals(headText)) {
+        addLetFnScopes((ClList) element, scopes);
+      } else if (ListDeclarations.LOCAL_BINDINGS.contains(headText)) {
+        final ClVector bindings = ((ClList) element).findFirstChildByClass(ClVector.class);
+        if (bindings != null) {
+          addBindingVector(bindings, element.getTextRange().getEndOffset(), scopes);
+        }
+      }
+    }
+
+    // collapsed data literals bind nothing and walking them would parse them
+    for (PsiElement child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child instanceof ClojurePsiElement && !ClojureReparseableElementType.isCollapsed(child.getNode())) {
+        collectScopes(child, scopes);
+      }
+    }
+  }
+
+  private static void addDefScopes(ClDef def, List<Scope> scopes) {
+    final int end = def.getTextRange().getEndOffset();
+    final ClSymbol name = def.getNameSymbol();
+    if (name == null) return;
+    // for recursive functions
+    addScope(scopes, name.getTextRange().getEndOffset(), end, Collections.singletonList(name), false);
+
+    final List<PsiElement> forms = getForms(def);
+    addArities(forms, forms.indexOf(name) + 1, end, scopes);
+  }
+
+  private static void addFnScopes(ClList fn, List<Scope> scopes) {
+    final int end = fn.getTextRange().getEndOffset();
+    final List<PsiElement> forms = getForms(fn);
+    int i = 1;
+    if (i < forms.size() && forms.get(i) instanceof ClSymbol) {
+      final ClSymbol name = (ClSymbol) forms.get(i++);
+      addScope(scopes, name.getTextRange().getEndOffset(), end, Collections.singletonList(name), true);
+    }
+    addArities(forms, i, end, scopes);
+  }
+
+  private static void addLetFnScopes(ClList letFn, List<Scope> scopes) {
+    final ClVector specs = letFn.findFirstChildByClass(ClVector.class);
+    if (specs == null) return;
+
+    final ArrayList<ClSymbol> names = new ArrayList<ClSymbol>();
+    for (PsiElement spec : getForms(specs)) {
+      if (!(spec instanceof ClList)) continue;
+      final List<PsiElement> forms = getForms(spec);
+      if (forms.isEmpty() || !(forms.get(0) instanceof ClSymbol)) continue;
+      names.add((ClSymbol) forms.get(0));
+      addArities(forms, 1, spec.getTextRange().getEndOffset(), scopes);
+    }
+    // functions may call each other
+    addScope(scopes, specs.getTextRange().getStartOffset(), letFn.getTextRange().getEndOffset(), names, true);
+  }
+
+  /**
+   * Adds parameters of either the single parameter vector or of each ([params] body) list starting from the index
+   */
+  private static void addArities(List<PsiElement> forms, int from, int end, List<Scope> scopes) {
+    for (int i = from; i < forms.size(); i++) {
+      final PsiElement form = forms.get(i);
+      if (form instanceof ClVector) {
+        addScope(scopes, form.getTextRange().getEndOffset(), end, getBindings(form), true);
+        return;
+      }
+      if (form instanceof ClList) {
+        final List<PsiElement> arity = getForms(form);
+        if (!arity.isEmpty() && arity.get(0) instanceof ClVector) {
+          final PsiElement params = arity.get(0);
+          addScope(scopes, params.getTextRange().getEndOffset(), form.getTextRange().getEndOffset(), getBindings(params), true);
+        }
+      }
+    }
+  }
+
+  /**
+   * Each binding is visible after its init expression. Modifiers of for are skipped, except for :let bindings.
+   */
+  private static void addBindingVector(ClVector vector, int end, List<Scope> scopes) {
+    final List<PsiElement> forms = getForms(vector);
+    for (int i = 0; i < forms.size(); i += 2) {
+      final PsiElement pattern = forms.get(i);
+      final PsiElement init = i + 1 < forms.size() ? forms.get(i + 1) : null;
+      if (pattern instanceof ClKeyword) {
+        if (":let".equals(pattern.getText()) && init instanceof ClVector) {
+          addBindingVector((ClVector) init, end, scopes);
+        }
+        continue;
+      }
+      final int start = (init != null ? init : vector).getTextRange().getEndOffset();
+      addScope(scopes, start, end, getBindings(pattern), true);
+    }
+  }
+
+  private static void addScope(List<Scope> scopes, int start, int end, List<ClSymbol> bindings, boolean local) {
+    if (start < end && !bindings.isEmpty()) {
+      scopes.add(new Scope(start, end, bindings, local));
+    }
+  }
+
+  private static List<ClSymbol> getBindings(PsiElement pattern) {
+    final ArrayList<ClSymbol> result = new ArrayList<ClSymbol>();
+    collectBindings(pattern, result);
+    return result;
+  }
+
+  private static void collectBindings(PsiElement pattern, List<ClSymbol> result) {
+    if (pattern instanceof ClSymbol) {
+      if (!AMPERSAND.equals(pattern.getText())) {
+        result.add((ClSymbol) pattern);
+      }
+    } else if (pattern instanceof ClVector) {
+      final List<PsiElement> forms = getForms(pattern);
+      for (int i = 0; i < forms.size(); i++) {
+        final PsiElement form = forms.get(i);
+        if (form instanceof ClKeyword) {
+          if (AS.equals(form.getText()) && i + 1 < forms.size()) {
+            collectBindings(forms.get(++i), result);
+          }
+        } else {
+          collectBindings(form, result);
+        }
+      }
+    } else if (pattern instanceof ClMap) {
+      for (ClMapEntry entry : ((ClMap) pattern).getEntries()) {
+        final List<PsiElement> forms = getForms(entry);
+        if (forms.size() != 2) continue;
+        final PsiElement key = forms.get(0);
+        final PsiElement value = forms.get(1);
+        if (key instanceof ClKeyword) {
+          final String text = key.getText();
+          if (AS.equals(text)) {
+            collectBindings(value, result);
+          } else if (KEYS.contains(text) && value instanceof ClVector) {
+            for (PsiElement name : getForms(value)) {
+              if (name instanceof ClSymbol) {
+                result.add((ClSymbol) name);
+              }
+            }
+          }
+          // :or defaults bind nothing
+        } else {
+          collectBindings(key, result);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return Child forms without metadata
+   */
+  private static List<PsiElement> getForms(PsiElement element) {
+    final ArrayList<PsiElement> result = new ArrayList<PsiElement>();
+    for (PsiElement child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child instanceof ClojurePsiElement && !(child instanceof ClMetaForm) && !(child instanceof ClMetadata)) {
+        result.add(child);
+      }
+    }
+    return result;
+  }
+}
@@ -4,7 +4,6 @@ import com.intellij.openapi.project.Project;
 import com.intellij.psi.*;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.containers.HashSet;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
@@ -12,7 +11,6 @@ import org.jetbrains.plugins.clojure.psi.api.ClKeyword;
 import org.jetbrains.plugins.clojure.psi.api.ClList;
 import org.jetbrains.plugins.clojure.psi.api.ClQuotedForm;
 import org.jetbrains.plugins.clojure.psi.api.ClVector;
-import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.symbols.ClSymbolImpl;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
@@ -48,7 +46,7 @@ public class ListDeclarations {
 
   private static final String DOT = ".";
 
-  private static final Set<String> LOCAL_BINDINGS = new HashSet<String>(Arrays.asList(
+  static final Set<String> LOCAL_BINDINGS = new HashSet<String>(Arrays.asList(
       LET, WITH_OPEN, WITH_LOCAL_VARS, WHEN_LET, WHEN_FIRST, FOR, IF_LET, LOOP, FN
   ));
 
@@ -58,14 +56,12 @@ public class ListDeclarations {
                             PsiElement place,
                             ClList list,
                             @Nullable String headText) {
+    // local bindings are processed by ClojureLocalScopes
     if (headText == null) return true;
-    if (headText.equals(FN)) return processFnDeclaration(processor, list, place, lastParent);
     if (headText.equals(IMPORT)) return processImportDeclaration(processor, list, place);
     if (headText.equals(MEMFN)) return processMemFnDeclaration(processor, list, place);
     if (headText.equals(DOT)) return processDotDeclaration(processor, list, place, lastParent);
-    if (headText.equals(LOOP)) return processLoopDeclaration(processor, list, place, lastParent);
     if (headText.equals(DECLARE)) return processDeclareDeclaration(processor, list, place, lastParent);
-    if (LOCAL_BINDINGS.contains(headText)) return processLetDeclaration(processor, list, place);
     return true;
   }
 
@@ -79,20 +75,6 @@ public class ListDeclarations {
     return true;
   }
 
-  private static boolean processLoopDeclaration(PsiScopeProcessor processor, ClList list, PsiElement place, PsiElement lastParent) {
-    if (lastParent != null && lastParent.getParent() == list) {
-      final ClVector paramVector = list.findFirstChildByClass(ClVector.class);
-      if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getOddSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
-      }
-      return true;
-    }
-    return true;
-  }
-
-
   private static boolean processDotDeclaration(PsiScopeProcessor processor, ClList list, PsiElement place, PsiElement lastParent) {
     final PsiElement parent = place.getParent();
     if (parent == null || list == parent) return true;
@@ -222,59 +204,7 @@ public class ListDeclarations {
     return false;
   }
 
-  private static boolean processLetDeclaration(PsiScopeProcessor processor, ClList list, PsiElement place) {
-    if (PsiTreeUtil.findCommonParent(place, list) == list) {
-      final ClVector paramVector = list.findFirstChildByClass(ClVector.class);
-      if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getOddSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
-      }
-      return true;
-    }
-    return true;
-  }
-
-  private static boolean processFnDeclaration(PsiScopeProcessor processor, ClList list, PsiElement place, PsiElement lastParent) {
-    final PsiElement second = list.getSecondNonLeafElement();
-    if ((second instanceof ClSymbol) && place != second && !ResolveUtil.processElement(processor, ((ClSymbol) second)))
-      return false;
-
-    if (PsiTreeUtil.findCommonParent(place, list) == list) {
-      ClVector paramVector = list.findFirstChildByClass(ClVector.class);
-      if (paramVector == null && lastParent instanceof ClList) {
-        paramVector = ((ClList) lastParent).findFirstChildByClass(ClVector.class);
-      }
-
-      if (paramVector != null) {
-        for (ClSymbol symbol : paramVector.getAllSymbols()) {
-          if (!ResolveUtil.processElement(processor, symbol)) return false;
-        }
-      }
-      return true;
-    }
-    return true;
-
-  }
-
   public static boolean isLocal(PsiElement element) {
-    if (element instanceof ClSymbol) {
-      ClSymbol symbol = (ClSymbol) element;
-      final PsiElement parent = symbol.getParent();
-
-      if (parent instanceof ClList) {
-        ClList list = (ClList) parent;
-        if (FN.equals(list.getHeadText())) return true;
-      } else if (parent instanceof ClVector) {
-        final PsiElement par = parent.getParent();
-        if (par instanceof ClDef && ((ClDef) par).getSecondNonLeafElement() == element) return true;
-        if (par instanceof ClList) {
-          final String ht = ((ClList) par).getHeadText();
-          if (LOCAL_BINDINGS.contains(ht)) return true;
-        }
-      }
-    }
-
-    return false;
+    return element instanceof ClSymbol && ClojureLocalScopes.isLocal((ClSymbol) element);
   }
 }
@@ -1,12 +1,18 @@
 package org.jetbrains.plugins.clojure.psi.impl.ns;
 
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.roots.ProjectRootManager;
 import com.intellij.openapi.util.Condition;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.*;
 import com.intellij.psi.scope.NameHint;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.containers.ContainerUtil;
@@ -28,10 +34,13 @@ import org.jetbrains.plugins.clojure.psi.util.ClojureKeywords;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiFactory;
 import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
 
+import java.util.*;
+
 /**
  * @author ilyas
  */
 public class ClNsImpl extends ClListBaseImpl<ClNsStub> implements ClNs, StubBasedPsiElement<ClNsStub> {
+  private static final Key<CachedValue<NsTable>> NS_TABLE = Key.create("clojure.ns.table");
 
   public ClNsImpl(ClNsStub stub, @NotNull IStubElementType nodeType) {
     super(stub, nodeType);
@@ -68,6 +77,11 @@ public class ClNsImpl extends ClListBaseImpl<ClNsStub> implements ClNs, StubBase
   }
 
   public String getDefinedName() {
+    final ClNsStub stub = getStub();
+    if (stub != null) {
+      return stub.getName();
+    }
+
     ClSymbol sym = getNameSymbol();
     if (sym != null) {
       String name = sym.getText();
@@ -84,6 +98,159 @@ public class ClNsImpl extends ClListBaseImpl<ClNsStub> implements ClNs, StubBase
 
   @Override
   public boolean processDeclarations(@NotNull PsiScopeProcessor processor, @NotNull ResolveState state, PsiElement lastParent, @NotNull PsiElement place) {
+    // completion and resolve within the form itself depend on the place
+    if (PsiTreeUtil.isAncestor(this, place, false)) {
+      return processDirectives(processor, place);
+    }
+
+    final NsTable table = getTable();
+    final NameHint nameHint = processor.getHint(NameHint.KEY);
+    final String name = nameHint == null ? null : nameHint.getName(state);
+
+    if (name != null) {
+      final List<PsiNamedElement> imported = table.imports.get(name);
+      if (imported != null) {
+        for (PsiNamedElement element : imported) {
+          if (!processor.execute(element, ResolveState.initial())) return false;
+        }
+      }
+    } else {
+      for (List<PsiNamedElement> imported : table.imports.values()) {
+        for (PsiNamedElement element : imported) {
+          if (!processor.execute(element, ResolveState.initial())) return false;
+        }
+      }
+    }
+
+    final ClojureNamespaceSymbolTable symbolTable = ClojureNamespaceSymbolTable.getInstance(getProject());
+    for (String ns : table.uses) {
+      if (name != null) {
+        for (PsiNamedElement element : symbolTable.getDefinitions(ns, name)) {
+          if (!processor.execute(element, ResolveState.initial())) return false;
+        }
+      } else {
+        for (PsiNamedElement[] elements : symbolTable.getSymbols(ns).values()) {
+          for (PsiNamedElement element : elements) {
+            if (!processor.execute(element, ResolveState.initial())) return false;
+          }
+        }
+      }
+    }
+
+    if (name != null) {
+      final ClSymbol from = table.aliases.get(name);
+      if (from != null) {
+        for (ResolveResult result : from.multiResolve(false)) {
+          final PsiElement element = result.getElement();
+          if (element instanceof PsiNamedElement) {
+            return processor.execute(element, ResolveState.initial());
+          }
+        }
+      }
+    } else {
+      for (ClSymbol alias : table.aliasSymbols) {
+        if (!processor.execute(alias, ResolveState.initial())) return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Imports, uses and aliases of the form, so that resolve outside of it does not walk the form each time.
+   * Values are kept until any PSI change, as imported classes and used namespaces may come from other files.
+   */
+  private static class NsTable {
+    /**
+     * Imported classes with their methods and fields by name
+     */
+    final Map<String, List<PsiNamedElement>> imports = new LinkedHashMap<String, List<PsiNamedElement>>();
+    final List<String> uses = new ArrayList<String>();
+    /**
+     * Namespace symbols by :as alias given to them
+     */
+    final Map<String, ClSymbol> aliases = new HashMap<String, ClSymbol>();
+    final List<ClSymbol> aliasSymbols = new ArrayList<ClSymbol>();
+
+    void addImport(PsiNamedElement element) {
+      List<PsiNamedElement> list = imports.get(element.getName());
+      if (list == null) {
+        list = new ArrayList<PsiNamedElement>(1);
+        imports.put(element.getName(), list);
+      }
+      list.add(element);
+    }
+  }
+
+  private NsTable getTable() {
+    CachedValue<NsTable> table = getUserData(NS_TABLE);
+    if (table == null) {
+      table = CachedValuesManager.getManager(getProject()).createCachedValue(new CachedValueProvider<NsTable>() {
+        public Result<NsTable> compute() {
+          return Result.create(buildTable(), PsiModificationTracker.MODIFICATION_COUNT, ProjectRootManager.getInstance(getProject()));
+        }
+      }, false);
+      table = putUserDataIfAbsent(NS_TABLE, table);
+    }
+    return table.getValue();
+  }
+
+  private NsTable buildTable() {
+    final NsTable table = new NsTable();
+    final JavaPsiFacade facade = JavaPsiFacade.getInstance(getProject());
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(getProject());
+    for (PsiElement element : getChildren()) {
+      if (!(element instanceof ClList)) continue;
+      final ClList directive = (ClList) element;
+      final PsiElement first = directive.getFirstNonLeafElement();
+      if (first == null) break;
+      final String headText = first.getText();
+
+      if (ClojureKeywords.IMPORT.equals(headText) || ListDeclarations.IMPORT.equals(headText)) {
+        for (PsiElement stmt : directive.getChildren()) {
+          if (!(stmt instanceof ClListLike)) continue;
+          final PsiElement fst = ((ClListLike) stmt).getFirstNonLeafElement();
+          if (!(fst instanceof ClSymbol)) continue;
+          final PsiPackage pack = facade.findPackage(((ClSymbol) fst).getNameString());
+          if (pack == null) continue;
+          for (PsiElement next = fst.getNextSibling(); next != null; next = next.getNextSibling()) {
+            if (!(next instanceof ClSymbol)) continue;
+            final PsiClass clazz = facade.findClass(pack.getQualifiedName() + "." + ((ClSymbol) next).getNameString(), scope);
+            if (clazz == null) continue;
+            table.addImport(clazz);
+            for (PsiMethod method : clazz.getAllMethods()) {
+              table.addImport(method);
+            }
+            for (PsiField field : clazz.getAllFields()) {
+              table.addImport(field);
+            }
+          }
+        }
+      } else if (ClojureKeywords.USE.equals(headText) || ListDeclarations.USE.equals(headText)) {
+        for (ClSymbol symbol : directive.getAllSymbols()) {
+          table.uses.add(symbol.getNameString());
+        }
+      } else if (ClojureKeywords.REQUIRE.equals(headText) || ListDeclarations.REQUIRE.equals(headText)) {
+        final ClListLike[] clauses = PsiTreeUtil.getChildrenOfType(directive, ClListLike.class);
+        if (clauses == null) continue;
+        for (ClListLike clause : clauses) {
+          final PsiElement from = clause.getNonLeafElement(1);
+          final PsiElement as = clause.getNonLeafElement(2);
+          final PsiElement to = clause.getNonLeafElement(3);
+          if (from instanceof ClSymbol && to instanceof ClSymbol &&
+              as instanceof ClKeyword && ClojureKeywords.AS.equals(as.getText())) {
+            final ClSymbol alias = (ClSymbol) to;
+            if (!table.aliases.containsKey(alias.getName())) {
+              table.aliases.put(alias.getName(), (ClSymbol) from);
+            }
+            table.aliasSymbols.add(alias);
+          }
+        }
+      }
+    }
+    return table;
+  }
+
+  private boolean processDirectives(PsiScopeProcessor processor, PsiElement place) {
     final JavaPsiFacade facade = JavaPsiFacade.getInstance(getProject());
     for (PsiElement element : getChildren()) {
       if (element instanceof ClList) {
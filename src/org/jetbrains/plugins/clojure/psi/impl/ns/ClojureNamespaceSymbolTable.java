@@ -0,0 +1,99 @@
+package org.jetbrains.plugins.clojure.psi.impl.ns;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps definitions of namespaces grouped by name, so that resolve of an unqualified symbol against
+ * clojure.core and other default namespaces is a hash lookup instead of a stub index query.
+ * Tables are built on demand from NamespaceUtil.getDeclaredElements() and dropped on any PSI or roots change.
+ */
+public class ClojureNamespaceSymbolTable {
+  private final Project myProject;
+  private final CachedValue<ConcurrentMap<String, Map<String, PsiNamedElement[]>>> myTables;
+
+  public static ClojureNamespaceSymbolTable getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, ClojureNamespaceSymbolTable.class);
+  }
+
+  public ClojureNamespaceSymbolTable(final Project project) {
+    myProject = project;
+    myTables = CachedValuesManager.getManager(project).createCachedValue(new CachedValueProvider<ConcurrentMap<String, Map<String, PsiNamedElement[]>>>() {
+      public Result<ConcurrentMap<String, Map<String, PsiNamedElement[]>>> compute() {
+        return Result.<ConcurrentMap<String, Map<String, PsiNamedElement[]>>>create(
+            new ConcurrentHashMap<String, Map<String, PsiNamedElement[]>>(),
+            PsiModificationTracker.MODIFICATION_COUNT, ProjectRootManager.getInstance(project));
+      }
+    }, false);
+  }
+
+  /**
+   * @return Definitions of the namespace by their names
+   */
+  @NotNull
+  public Map<String, PsiNamedElement[]> getSymbols(@NotNull String ns) {
+    final ConcurrentMap<String, Map<String, PsiNamedElement[]>> tables = myTables.getValue();
+    Map<String, PsiNamedElement[]> table = tables.get(ns);
+    if (table == null) {
+      table = buildTable(ns);
+      final Map<String, PsiNamedElement[]> existing = tables.putIfAbsent(ns, table);
+      if (existing != null) table = existing;
+    }
+    return table;
+  }
+
+  @NotNull
+  public PsiNamedElement[] getDefinitions(@NotNull String ns, @NotNull String name) {
+    final PsiNamedElement[] definitions = getSymbols(ns).get(name);
+    return definitions == null ? PsiNamedElement.EMPTY_ARRAY : definitions;
+  }
+
+  /**
+   * @param name Name of definitions to look for, null for all of them
+   * @return Definitions from NamespaceUtil.DEFAULT_NSES
+   */
+  @NotNull
+  public PsiNamedElement[] getDefaultDefinitions(@Nullable String name) {
+    final ArrayList<PsiNamedElement> result = new ArrayList<PsiNamedElement>();
+    for (String ns : NamespaceUtil.DEFAULT_NSES) {
+      if (name != null) {
+        result.addAll(Arrays.asList(getDefinitions(ns, name)));
+      } else {
+        for (PsiNamedElement[] definitions : getSymbols(ns).values()) {
+          result.addAll(Arrays.asList(definitions));
+        }
+      }
+    }
+    return result.toArray(PsiNamedElement.EMPTY_ARRAY);
+  }
+
+  private Map<String, PsiNamedElement[]> buildTable(String ns) {
+    final Map<String, List<PsiNamedElement>> byName = new LinkedHashMap<String, List<PsiNamedElement>>();
+    for (PsiNamedElement element : NamespaceUtil.getDeclaredElements(ns, myProject)) {
+      List<PsiNamedElement> list = byName.get(element.getName());
+      if (list == null) {
+        list = new ArrayList<PsiNamedElement>(1);
+        byName.put(element.getName(), list);
+      }
+      list.add(element);
+    }
+
+    final Map<String, PsiNamedElement[]> result = new LinkedHashMap<String, PsiNamedElement[]>(byName.size());
+    for (Map.Entry<String, List<PsiNamedElement>> entry : byName.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().toArray(new PsiNamedElement[entry.getValue().size()]));
+    }
+    return Collections.unmodifiableMap(result);
+  }
+}
@@ -0,0 +1,193 @@
+package org.jetbrains.plugins.clojure.psi.impl.ns;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsDependencyIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsDependencyIndex.Dependency;
+
+import java.util.*;
+
+/**
+ * Answers which namespaces a namespace depends on, which ones depend on it and in which order they may be loaded.
+ * Direct dependencies are read from ClojureNsDependencyIndex on each call, whereas the reverse edges
+ * and the load order are computed over the whole project once per PSI or roots change.
+ */
+public class ClojureNsDependencyGraph {
+  private final Project myProject;
+  private final CachedValue<Graph> myGraph;
+
+  public static ClojureNsDependencyGraph getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, ClojureNsDependencyGraph.class);
+  }
+
+  public ClojureNsDependencyGraph(final Project project) {
+    myProject = project;
+    myGraph = CachedValuesManager.getManager(project).createCachedValue(new CachedValueProvider<Graph>() {
+      public Result<Graph> compute() {
+        return Result.create(buildGraph(), PsiModificationTracker.MODIFICATION_COUNT, ProjectRootManager.getInstance(project));
+      }
+    }, false);
+  }
+
+  /**
+   * @return Outgoing edges of all ns forms declaring the namespace
+   */
+  @NotNull
+  public Set<Dependency> getDependencies(@NotNull String ns) {
+    final LinkedHashSet<Dependency> result = new LinkedHashSet<Dependency>();
+    for (List<Dependency> dependencies : FileBasedIndex.getInstance().getValues(ClojureNsDependencyIndex.NAME, ns, getScope())) {
+      result.addAll(dependencies);
+    }
+    return result;
+  }
+
+  /**
+   * @return Namespaces loaded by :require, :use or :refer-clojure of the namespace
+   */
+  @NotNull
+  public Set<String> getRequiredNamespaces(@NotNull String ns) {
+    final LinkedHashSet<String> result = new LinkedHashSet<String>();
+    for (Dependency dependency : getDependencies(ns)) {
+      if (dependency.getKind() != ClojureNsDependencyIndex.Kind.IMPORT) {
+        result.add(dependency.getTarget());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return Namespaces which require, use or refer the namespace
+   */
+  @NotNull
+  public Set<String> getDependentNamespaces(@NotNull String ns) {
+    final Set<String> dependents = myGraph.getValue().dependents.get(ns);
+    return dependents == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(dependents);
+  }
+
+  /**
+   * @return All namespaces declared by ns forms, each one following the namespaces it requires.
+   *         Namespaces of a dependency cycle come together, in alphabetical order, after the namespaces the cycle requires.
+   */
+  @NotNull
+  public List<String> getTopologicalOrder() {
+    return myGraph.getValue().order;
+  }
+
+  private GlobalSearchScope getScope() {
+    return GlobalSearchScope.allScope(myProject);
+  }
+
+  private Graph buildGraph() {
+    final FileBasedIndex index = FileBasedIndex.getInstance();
+    final GlobalSearchScope scope = getScope();
+    final Map<String, Set<String>> required = new HashMap<String, Set<String>>();
+    for (String ns : index.getAllKeys(ClojureNsDependencyIndex.NAME, myProject)) {
+      final List<List<Dependency>> values = index.getValues(ClojureNsDependencyIndex.NAME, ns, scope);
+      // keys of deleted or out-of-scope files may still be there
+      if (values.isEmpty()) continue;
+      final HashSet<String> targets = new HashSet<String>();
+      for (List<Dependency> dependencies : values) {
+        for (Dependency dependency : dependencies) {
+          if (dependency.getKind() != ClojureNsDependencyIndex.Kind.IMPORT && !dependency.getTarget().equals(ns)) {
+            targets.add(dependency.getTarget());
+          }
+        }
+      }
+      required.put(ns, targets);
+    }
+    return new Graph(required);
+  }
+
+  private static class Graph {
+    final Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+    final List<String> order;
+
+    Graph(Map<String, Set<String>> required) {
+      for (Map.Entry<String, Set<String>> entry : required.entrySet()) {
+        for (String target : entry.getValue()) {
+          Set<String> set = dependents.get(target);
+          if (set == null) {
+            set = new HashSet<String>();
+            dependents.put(target, set);
+          }
+          set.add(entry.getKey());
+        }
+      }
+
+      order = Collections.unmodifiableList(sort(required));
+    }
+
+    /**
+     * Tarjan's algorithm: a strongly connected component, i.e. a dependency cycle or a single namespace, is complete
+     * after all the components it requires. Namespaces and their requirements are visited in alphabetical order,
+     * which keeps the order stable between rebuilds.
+     */
+    private static List<String> sort(Map<String, Set<String>> required) {
+      final ArrayList<String> result = new ArrayList<String>(required.size());
+      final Map<String, Integer> index = new HashMap<String, Integer>();
+      final Map<String, Integer> lowLink = new HashMap<String, Integer>();
+      final ArrayList<String> stack = new ArrayList<String>();
+      final Set<String> onStack = new HashSet<String>();
+      // namespaces being visited with their remaining requirements, chains of requires may be long
+      final ArrayList<String> path = new ArrayList<String>();
+      final ArrayList<Iterator<String>> requirements = new ArrayList<Iterator<String>>();
+
+      for (String root : new TreeSet<String>(required.keySet())) {
+        if (index.containsKey(root)) continue;
+        visit(root, required, index, lowLink, stack, onStack, path, requirements);
+        while (!path.isEmpty()) {
+          final String ns = path.get(path.size() - 1);
+          final Iterator<String> iterator = requirements.get(requirements.size() - 1);
+          if (iterator.hasNext()) {
+            final String target = iterator.next();
+            // namespaces without ns form, e.g. clojure.core, are loaded by other means
+            if (!required.containsKey(target)) continue;
+            if (!index.containsKey(target)) {
+              visit(target, required, index, lowLink, stack, onStack, path, requirements);
+            } else if (onStack.contains(target)) {
+              lowLink.put(ns, Math.min(lowLink.get(ns), index.get(target)));
+            }
+            continue;
+          }
+
+          path.remove(path.size() - 1);
+          requirements.remove(requirements.size() - 1);
+          if (!path.isEmpty()) {
+            final String parent = path.get(path.size() - 1);
+            lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(ns)));
+          }
+          if (lowLink.get(ns).equals(index.get(ns))) {
+            final TreeSet<String> component = new TreeSet<String>();
+            String member;
+            do {
+              member = stack.remove(stack.size() - 1);
+              onStack.remove(member);
+              component.add(member);
+            } while (!member.equals(ns));
+            result.addAll(component);
+          }
+        }
+      }
+      return result;
+    }
+
+    private static void visit(String ns, Map<String, Set<String>> required, Map<String, Integer> index,
+                              Map<String, Integer> lowLink, List<String> stack, Set<String> onStack,
+                              List<String> path, List<Iterator<String>> requirements) {
+      index.put(ns, index.size());
+      lowLink.put(ns, index.get(ns));
+      stack.add(ns);
+      onStack.add(ns);
+      path.add(ns);
+      requirements.add(new TreeSet<String>(required.get(ns)).iterator());
+    }
+  }
+}
@@ -1,26 +1,29 @@
 package org.jetbrains.plugins.clojure.psi.impl.ns;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.util.Trinity;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.UserDataHolderEx;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import com.intellij.psi.scope.PsiScopeProcessor;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StubIndex;
-import com.intellij.psi.util.PsiElementFilter;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.indexing.FileBasedIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNamespaceIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsChildrenIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsNameIndex;
-import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.*;
 
 /**
  * @author ilyas
@@ -36,112 +39,112 @@ public class NamespaceUtil {
 //          "clojure.xml"
   };
 
+  private static final Key<CachedValue<Set<String>>> TOP_LEVEL_NAMESPACES = Key.create("clojure.top.level.namespaces");
+
+  /**
+   * Definitions are looked up in stub index, so no AST is loaded for library or unopened files
+   *
+   * @param nsFqn fully qualified namespace name
+   * @return definitions from all ns and in-ns sections of the namespace
+   */
   public static PsiNamedElement[] getDeclaredElements(@NotNull String nsFqn, @NotNull Project project) {
-    final Collection<ClNs> nses = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, nsFqn, project, GlobalSearchScope.allScope(project));
+    final Collection<ClDef> defs = StubIndex.getInstance().get(ClDefNamespaceIndex.KEY, nsFqn, project, GlobalSearchScope.allScope(project));
     ArrayList<PsiNamedElement> result = new ArrayList<PsiNamedElement>();
 
-    for (ClNs ns : nses) {
-      if (nsFqn.equals(ns.getName())) {
-        final PsiFile file = ns.getContainingFile();
-        if (file instanceof ClojureFile) {
-          ClojureFile clf = (ClojureFile) file;
-          final PsiElement[] elems = PsiTreeUtil.collectElements(clf, new PsiElementFilter() {
-            public boolean isAccepted(PsiElement element) {
-              return element instanceof ClDef;
-            }
-          });
-
-          for (PsiElement elem : elems) {
-            if (elem instanceof PsiNamedElement &&
-                    ((PsiNamedElement) elem).getName() != null &&
-                    ((PsiNamedElement) elem).getName().length() > 0 &&
-                    suitsByPosition(((PsiNamedElement) elem), ns)) {
-              result.add(((PsiNamedElement) elem));
-            }
-          }
-        }
+    for (ClDef def : defs) {
+      final String name = def.getName();
+      if (name != null && name.length() > 0) {
+        result.add(def);
       }
     }
     return result.toArray(PsiNamedElement.EMPTY_ARRAY);
   }
 
   public static PsiNamedElement[] getDefaultDefinitions(@NotNull Project project) {
-    final ArrayList<PsiNamedElement> res = new ArrayList<PsiNamedElement>();
-    for (String ns : DEFAULT_NSES) {
-      res.addAll(Arrays.asList(getDeclaredElements(ns, project)));
-    }
-    return res.toArray(PsiNamedElement.EMPTY_ARRAY);
+    return ClojureNamespaceSymbolTable.getInstance(project).getDefaultDefinitions(null);
   }
 
-  private static boolean suitsByPosition(PsiNamedElement candidate, ClNs ns) {
-    final Trinity<PsiElement, PsiElement, PsiElement> tr = ClojurePsiUtil.findCommonParentAndLastChildren(ns, candidate);
-    final PsiElement nsParent = tr.getSecond();
-    final PsiElement candParent = tr.getThird();
-    return ClojurePsiUtil.lessThan(nsParent, candParent);
-  }
+  public static ClSyntheticNamespace[] getTopLevelNamespaces(@NotNull final Project project) {
+    CachedValue<Set<String>> topLevel = project.getUserData(TOP_LEVEL_NAMESPACES);
+    if (topLevel == null) {
+      topLevel = CachedValuesManager.getManager(project).createCachedValue(new CachedValueProvider<Set<String>>() {
+        public Result<Set<String>> compute() {
+          return Result.create(getChildNamespaces(ClojureNsChildrenIndex.ROOT, project),
+              PsiModificationTracker.MODIFICATION_COUNT, ProjectRootManager.getInstance(project));
+        }
+      }, false);
+      topLevel = ((UserDataHolderEx) project).putUserDataIfAbsent(TOP_LEVEL_NAMESPACES, topLevel);
+    }
 
-  public static ClSyntheticNamespace[] getTopLevelNamespaces(@NotNull Project project) {
     ArrayList<ClSyntheticNamespace> result = new ArrayList<ClSyntheticNamespace>();
-    for (String fqn : StubIndex.getInstance().getAllKeys(ClojureNsNameIndex.KEY, project)) {
-      if (!fqn.contains(".")) {
-        result.add(getNamespace(fqn, project));
-      }
+    for (String fqn : topLevel.getValue()) {
+      result.add(new MyClSyntheticNamespace(project, fqn));
     }
     return result.toArray(new ClSyntheticNamespace[result.size()]);
   }
 
+  /**
+   * @return Qualified names of direct children of the namespace, top-level namespaces for ClojureNsChildrenIndex.ROOT
+   */
+  @NotNull
+  public static Set<String> getChildNamespaces(@NotNull String fqn, @NotNull Project project) {
+    final LinkedHashSet<String> result = new LinkedHashSet<String>();
+    for (List<String> children : FileBasedIndex.getInstance().getValues(ClojureNsChildrenIndex.NAME, fqn, GlobalSearchScope.allScope(project))) {
+      result.addAll(children);
+    }
+    return result;
+  }
+
   @Nullable
   public static ClSyntheticNamespace getNamespace(@NotNull String fqn, @NotNull final Project project) {
-    final Collection<ClNs> nsWithPrefix = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, fqn, project, GlobalSearchScope.allScope(project));
-    if (!nsWithPrefix.isEmpty()) {
-      final ClNs ns = nsWithPrefix.iterator().next();
-      final String nsName = ns.getName();
-      assert nsName != null;
-      final String synthName = nsName.equals(fqn) ? nsName : fqn;
-      final String refName = StringUtil.getShortName(synthName);
-
-      final ClNs navigationElement = fqn.equals(ns.getName()) ? ns : null;
-      return new MyClSyntheticNamespace(project, refName, synthName, navigationElement);
-
+    // every declared namespace and every prefix of its name is a key of the index
+    if (FileBasedIndex.getInstance().getValues(ClojureNsChildrenIndex.NAME, fqn, GlobalSearchScope.allScope(project)).isEmpty()) {
+      return null;
     }
-    return null;
+    return new MyClSyntheticNamespace(project, fqn);
   }
 
   private static class MyClSyntheticNamespace extends ClSyntheticNamespace {
 
     private final Project project;
-    private final ClNs navigationElement;
+    private ClNs navigationElement;
+    private boolean navigationElementFound;
 
-    public MyClSyntheticNamespace(Project project, String refName, String synthName, ClNs navigationElement) {
-      super(PsiManager.getInstance(project), refName, synthName, navigationElement);
+    public MyClSyntheticNamespace(Project project, String synthName) {
+      super(PsiManager.getInstance(project), StringUtil.getShortName(synthName), synthName, null);
       this.project = project;
-      this.navigationElement = navigationElement;
+    }
+
+    // There is no ns form for intermediate namespaces, e.g. for foo if only foo.bar is declared
+    @Nullable
+    private ClNs findNavigationElement() {
+      if (!navigationElementFound) {
+        final Collection<ClNs> nses = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, getQualifiedName(), project, GlobalSearchScope.allScope(project));
+        navigationElement = nses.isEmpty() ? null : nses.iterator().next();
+        navigationElementFound = true;
+      }
+      return navigationElement;
     }
 
     @NotNull
     @Override
     public PsiElement getNavigationElement() {
-      return navigationElement != null ? navigationElement : super.getNavigationElement();
+      final ClNs ns = findNavigationElement();
+      return ns != null ? ns : super.getNavigationElement();
     }
 
     @Override
     public boolean canNavigateToSource() {
-      return navigationElement != null;
+      return findNavigationElement() != null;
     }
 
     @Override
     public boolean processDeclarations(@NotNull PsiScopeProcessor processor, @NotNull ResolveState state, PsiElement lastParent, @NotNull PsiElement place) {
 
       // Add inner namespaces
-      for (String fqn : StubIndex.getInstance().getAllKeys(ClojureNsNameIndex.KEY, project)) {
-        final String outerName = getQualifiedName();
-        if (fqn.startsWith(outerName) && !fqn.equals(outerName) &&
-                !StringUtil.trimStart(fqn, outerName + ".").contains(".")) {
-          final ClSyntheticNamespace inner = getNamespace(fqn, project);
-          if (!ResolveUtil.processElement(processor, inner)) {
-            return false;
-          }
-
+      for (String fqn : getChildNamespaces(getQualifiedName(), project)) {
+        if (!ResolveUtil.processElement(processor, new MyClSyntheticNamespace(project, fqn))) {
+          return false;
         }
       }
 
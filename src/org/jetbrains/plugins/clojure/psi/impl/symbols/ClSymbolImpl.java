@@ -34,7 +34,9 @@ import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
 import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
 import org.jetbrains.plugins.clojure.psi.resolve.ClojureResolveResult;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureUnresolvedNameCache;
 import org.jetbrains.plugins.clojure.psi.resolve.ClojureResolveResultImpl;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureTypeInference;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
 import org.jetbrains.plugins.clojure.psi.resolve.completion.CompletionProcessor;
 import org.jetbrains.plugins.clojure.psi.resolve.processors.ResolveProcessor;
@@ -179,14 +181,22 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
     }
 
     public static ResolveResult[] resolveJavaMethodReference(final ClSymbol symbol, @Nullable PsiElement start, final boolean forCompletion) {
-      final CompletionProcessor processor = new CompletionProcessor(symbol);
-      if (start == null) start = symbol;
-      ResolveUtil.treeWalkUp(start, processor);
       final String name = symbol.getReferenceName();
       assert name != null;
 
       final String originalName = StringUtil.trimStart(name, ".");
-      final PsiElement[] elements = ResolveUtil.mapToElements(processor.getCandidates());
+      // look through the class of the receiver, if it is known and has the method, and through all the visible classes otherwise
+      final PsiClass receiverClass = ClojureTypeInference.inferReceiverClass(symbol, start);
+      if (receiverClass != null) {
+        final ResolveResult[] results = collectMethods(new PsiElement[]{receiverClass}, originalName, forCompletion);
+        if (results.length > 0) return results;
+      }
+      final CompletionProcessor processor = new CompletionProcessor(symbol);
+      ResolveUtil.treeWalkUp(start == null ? symbol : start, processor);
+      return collectMethods(ResolveUtil.mapToElements(processor.getCandidates()), originalName, forCompletion);
+    }
+
+    private static ResolveResult[] collectMethods(PsiElement[] elements, final String originalName, final boolean forCompletion) {
       final HashMap<MethodSignature, HashSet<PsiMethod>> sig2Method = CompleteSymbol.collectAvailableMethods(elements);
       final List<MethodSignature> goodSignatures = ContainerUtil.findAll(sig2Method.keySet(), new Condition<MethodSignature>() {
         public boolean value(MethodSignature methodSignature) {
@@ -245,8 +255,15 @@ public class ClSymbolImpl extends ClojurePsiElementImpl implements ClSymbol {
     private void resolveNamespace(ClSymbol symbol, ResolveProcessor processor) {
       // process namespaces
       final Project project = symbol.getProject();
+      final String name = symbol.getNameString();
+      final ClojureUnresolvedNameCache misses = ClojureUnresolvedNameCache.getInstance(project);
+      if (misses.isUnknownNamespace(name)) return;
+
       final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
-      final Collection<ClNs> nses = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, symbol.getNameString(), project, scope);
+      final Collection<ClNs> nses = StubIndex.getInstance().get(ClojureNsNameIndex.KEY, name, project, scope);
+      if (nses.isEmpty()) {
+        misses.markUnknownNamespace(name);
+      }
       for (ClNs ns : nses) {
         ResolveUtil.processElement(processor, ns);
       }
@@ -14,6 +14,7 @@ import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
 import org.jetbrains.plugins.clojure.psi.resolve.ClojureResolveResult;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureTypeInference;
 import org.jetbrains.plugins.clojure.psi.resolve.ResolveUtil;
 import org.jetbrains.plugins.clojure.psi.resolve.completion.CompletionProcessor;
 
@@ -58,7 +59,8 @@ public class CompleteSymbol {
     final boolean withoutDot = mayBeMethodReference(symbol);
     if (symbol.getChildren().length == 0 && symbol.getText().startsWith(".") ||
             withoutDot) {
-      addJavaMethods(psiElements, variants, withoutDot);
+      final PsiClass receiverClass = ClojureTypeInference.inferReceiverClass(symbol, null);
+      addJavaMethods(receiverClass != null ? new PsiElement[]{receiverClass} : psiElements, variants, withoutDot);
     }
 
     return variants.toArray(new Object[variants.size()]);
@@ -134,9 +136,6 @@ public class CompleteSymbol {
     for (PsiElement element : psiElements) {
       if (element instanceof PsiClass) {
         PsiClass clazz = (PsiClass) element;
-        if (clazz.getName().equals("Pattern")) {
-          System.out.println("");
-        }
         for (PsiMethod method : clazz.getAllMethods()) {
           if (!method.isConstructor() && method.hasModifierProperty(PsiModifier.PUBLIC)) {
             final MethodSignature sig = method.getSignature(PsiSubstitutor.EMPTY);
@@ -12,6 +12,7 @@ import org.jetbrains.plugins.clojure.file.ClojureFileType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.Nullable;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.impl.light.LightElement;
 import com.intellij.psi.impl.InheritanceImplUtil;
 import com.intellij.psi.*;
@@ -64,15 +65,29 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
     myFile = file;
     assert myFile.isClassDefiningFile();
     assert myFile.getNamespaceElement() != null;
-    cachesNames();
+    cachesNames(computeQualifiedName(file));
   }
 
-  private void cachesNames() {
-    String name = myFile.getName();
+  /**
+   * Creates class by the name kept in the file stub, so the file is not parsed
+   */
+  public ClSyntheticClassImpl(@NotNull ClojureFile file, @NotNull String qualifiedName) {
+    super(file.getManager(), ClojureFileType.CLOJURE_LANGUAGE);
+    myFile = file;
+    cachesNames(qualifiedName);
+  }
+
+  private void cachesNames(String qualifiedName) {
+    myQualifiedName = qualifiedName;
+    myName = StringUtil.getShortName(qualifiedName);
+  }
+
+  public static String computeQualifiedName(@NotNull ClojureFile file) {
+    String name = file.getName();
     int i = name.indexOf('.');
-    myName = i > 0 ? name.substring(0, i) : name;
-    String packageName = myFile.getPackageName();
-    myQualifiedName = packageName.length() > 0 ? packageName + "." + myName : myName;
+    String className = i > 0 ? name.substring(0, i) : name;
+    String packageName = file.getPackageName();
+    return packageName.length() > 0 ? packageName + "." + className : className;
   }
 
 
@@ -112,7 +127,7 @@ public class ClSyntheticClassImpl extends LightElement implements ClSyntheticCla
   }
 
   public PsiElement copy() {
-    return new ClSyntheticClassImpl(myFile);
+    return new ClSyntheticClassImpl(myFile, myQualifiedName);
   }
 
   public String getQualifiedName() {
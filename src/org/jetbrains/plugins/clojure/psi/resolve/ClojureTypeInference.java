@@ -0,0 +1,218 @@
+package org.jetbrains.plugins.clojure.psi.resolve;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.ClLiteral;
+import org.jetbrains.plugins.clojure.psi.api.ClMap;
+import org.jetbrains.plugins.clojure.psi.api.ClMetadata;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.ClMetaForm;
+import org.jetbrains.plugins.clojure.psi.impl.list.ClojureLocalScopes;
+import org.jetbrains.plugins.clojure.psi.util.ClojurePsiUtil;
+
+/**
+ * Infers the class of an expression from what is known without evaluation: ^Type and #^Type hints, literals,
+ * constructor calls (Foo. and new), :tag of definitions and init expressions of let and loop bindings.
+ * Used to narrow the classes looked through for (.method x) and its completion.
+ */
+public class ClojureTypeInference {
+  private static final String NEW = "new";
+  private static final String DOT = ".";
+  private static final String TAG_KEY = "tag";
+  private static final int MAX_DEPTH = 8;
+
+  private ClojureTypeInference() {
+  }
+
+  /**
+   * @return Class of the expression value or null, if it is not known. Object is not a known class, any value is one.
+   */
+  @Nullable
+  public static PsiClass inferClass(@Nullable PsiElement expression) {
+    final PsiClass clazz = inferClass(expression, 0);
+    return clazz == null || CommonClassNames.JAVA_LANG_OBJECT.equals(clazz.getQualifiedName()) ? null : clazz;
+  }
+
+  /**
+   * @param start Dot form (. x method) containing the method symbol, or null for (.method x)
+   * @return Class of the object, whose method the symbol refers to
+   */
+  @Nullable
+  public static PsiClass inferReceiverClass(@NotNull ClSymbol method, @Nullable PsiElement start) {
+    final PsiElement call = start == null ? method.getParent() : start;
+    if (!(call instanceof ClList)) return null;
+    final ClList list = (ClList) call;
+    if (start == null ? list.getFirstNonLeafElement() != method : !DOT.equals(list.getHeadText())) return null;
+    return inferClass(getReceiver(list));
+  }
+
+  /**
+   * @return Receiver of a method call, e.g. x for (.method x) or (. x method)
+   */
+  @Nullable
+  public static PsiElement getReceiver(@NotNull ClList call) {
+    final PsiElement first = call.getFirstNonLeafElement();
+    final PsiElement receiver = first == null ? null : nextForm(first);
+    return receiver instanceof ClojurePsiElement ? receiver : null;
+  }
+
+  @Nullable
+  private static PsiClass inferClass(@Nullable PsiElement expression, int depth) {
+    if (expression == null || depth > MAX_DEPTH) return null;
+
+    final PsiClass hinted = getHintedClass(expression);
+    if (hinted != null) return hinted;
+
+    if (expression instanceof ClSymbol) {
+      return inferSymbolClass((ClSymbol) expression, depth);
+    }
+    if (expression instanceof ClList) {
+      return inferCallClass((ClList) expression, depth);
+    }
+    if (expression instanceof ClLiteral) {
+      final String className = getLiteralClassName(expression.getText());
+      return className == null ? null : findClass(className, expression);
+    }
+    return null;
+  }
+
+  @Nullable
+  private static String getLiteralClassName(String text) {
+    if (text.startsWith("\"")) return CommonClassNames.JAVA_LANG_STRING;
+    if (text.startsWith("\\")) return CommonClassNames.JAVA_LANG_CHARACTER;
+
+    final String digits = StringUtil.trimStart(StringUtil.trimStart(text, "-"), "+");
+    if (digits.length() == 0 || !Character.isDigit(digits.charAt(0))) return null;
+    if (text.endsWith("M")) return "java.math.BigDecimal";
+    if (text.endsWith("N")) return "clojure.lang.BigInt";
+    if (text.contains("/")) return "clojure.lang.Ratio";
+    if (!StringUtil.startsWithIgnoreCase(digits, "0x") && (text.contains(".") || StringUtil.containsIgnoreCase(text, "e"))) {
+      return CommonClassNames.JAVA_LANG_DOUBLE;
+    }
+    return CommonClassNames.JAVA_LANG_LONG;
+  }
+
+  @Nullable
+  private static PsiClass inferSymbolClass(ClSymbol symbol, int depth) {
+    final ResolveResult[] results = symbol.multiResolve(false);
+    if (results.length != 1) return null;
+    final PsiElement element = results[0].getElement();
+
+    if (element instanceof ClDef) {
+      return findClassByTag(((ClDef) element).getTag(), symbol);
+    }
+    if (element instanceof PsiField) {
+      return getTypeClass(((PsiField) element).getType());
+    }
+    if (element instanceof ClSymbol && element != symbol) {
+      final PsiClass hinted = getHintedClass(element);
+      if (hinted != null) return hinted;
+      return inferClass(ClojureLocalScopes.getInitExpression((ClSymbol) element), depth + 1);
+    }
+    return null;
+  }
+
+  @Nullable
+  private static PsiClass inferCallClass(ClList call, int depth) {
+    final ClSymbol head = call.getFirstSymbol();
+    if (head == null || head != call.getFirstNonLeafElement()) return null;
+    final String headText = head.getText();
+
+    // (Foo. args) and (new Foo args)
+    if (headText.length() > 1 && headText.endsWith(".") && !headText.startsWith(".")) {
+      return getResolvedClass(head);
+    }
+    if (NEW.equals(headText)) {
+      final PsiElement type = nextForm(head);
+      return type instanceof ClSymbol ? getResolvedClass((ClSymbol) type) : null;
+    }
+
+    // call of a function with a return type hint
+    final ResolveResult[] results = head.multiResolve(false);
+    if (results.length == 1 && results[0].getElement() instanceof ClDef) {
+      return findClassByTag(((ClDef) results[0].getElement()).getTag(), call);
+    }
+    return getReturnClass(results);
+  }
+
+  /**
+   * @return Class returned by all the methods resolved, e.g. overloads of (.method x)
+   */
+  @Nullable
+  private static PsiClass getReturnClass(ResolveResult[] methods) {
+    PsiClass result = null;
+    for (ResolveResult method : methods) {
+      if (!(method.getElement() instanceof PsiMethod)) return null;
+      final PsiType type = ((PsiMethod) method.getElement()).getReturnType();
+      final PsiClass clazz = type == null ? null : getTypeClass(type);
+      if (clazz == null || result != null && result != clazz) return null;
+      result = clazz;
+    }
+    return result;
+  }
+
+  /**
+   * Looks at ^Type, ^{:tag Type} and #^Type forms preceding the element
+   */
+  @Nullable
+  private static PsiClass getHintedClass(PsiElement element) {
+    final PsiElement prev = PsiTreeUtil.skipSiblingsBackward(element, PsiWhiteSpace.class, PsiComment.class);
+    if (!(prev instanceof ClMetaForm) && !(prev instanceof ClMetadata)) return null;
+
+    final PsiElement[] children = prev.getChildren();
+    if (children.length == 0) return null;
+    PsiElement hint = children[0];
+    if (hint instanceof ClMap) {
+      hint = ((ClMap) hint).getValue(TAG_KEY);
+    }
+    return hint instanceof ClSymbol ? getResolvedClass((ClSymbol) hint) : null;
+  }
+
+  @Nullable
+  private static PsiClass getResolvedClass(ClSymbol symbol) {
+    for (ResolveResult result : symbol.multiResolve(false)) {
+      if (result.getElement() instanceof PsiClass) {
+        return (PsiClass) result.getElement();
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static PsiClass findClassByTag(@Nullable String tag, PsiElement context) {
+    if (tag == null) return null;
+    final PsiClass clazz = findClass(tag, context);
+    return clazz != null || tag.contains(".") ? clazz : findClass(ClojurePsiUtil.JAVA_LANG + "." + tag, context);
+  }
+
+  @Nullable
+  private static PsiClass findClass(String name, PsiElement context) {
+    return JavaPsiFacade.getInstance(context.getProject()).findClass(name, GlobalSearchScope.allScope(context.getProject()));
+  }
+
+  @Nullable
+  private static PsiClass getTypeClass(PsiType type) {
+    final PsiClass clazz = type instanceof PsiClassType ? ((PsiClassType) type).resolve() : null;
+    // methods of T are not known
+    return clazz instanceof PsiTypeParameter ? null : clazz;
+  }
+
+  /**
+   * @return Next sibling form, metadata skipped
+   */
+  @Nullable
+  public static PsiElement nextForm(@NotNull PsiElement element) {
+    PsiElement next = element.getNextSibling();
+    while (next != null && !(next instanceof ClojurePsiElement && !(next instanceof ClMetaForm) && !(next instanceof ClMetadata))) {
+      next = next.getNextSibling();
+    }
+    return next;
+  }
+}
@@ -0,0 +1,57 @@
+package org.jetbrains.plugins.clojure.psi.resolve;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers names, which resolve to nothing in the parts of resolve not depending on the place of a symbol:
+ * java.lang classes, packages, default namespaces and top-level namespaces looked up by ClojureFileImpl,
+ * and namespace names looked up for dotted symbols. Symbols introduced by macros or created at runtime
+ * are met many times during highlighting, so such lookups are repeated only after PSI or roots change.
+ */
+public class ClojureUnresolvedNameCache {
+  private final CachedValue<Misses> myMisses;
+
+  private static class Misses {
+    final Set<String> fileLevel = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final Set<String> namespaces = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  }
+
+  public static ClojureUnresolvedNameCache getInstance(@NotNull Project project) {
+    return ServiceManager.getService(project, ClojureUnresolvedNameCache.class);
+  }
+
+  public ClojureUnresolvedNameCache(final Project project) {
+    myMisses = CachedValuesManager.getManager(project).createCachedValue(new CachedValueProvider<Misses>() {
+      public Result<Misses> compute() {
+        return Result.create(new Misses(), PsiModificationTracker.MODIFICATION_COUNT, ProjectRootManager.getInstance(project));
+      }
+    }, false);
+  }
+
+  public boolean isUnresolvedAtFileLevel(@NotNull String name) {
+    return myMisses.getValue().fileLevel.contains(name);
+  }
+
+  public void markUnresolvedAtFileLevel(@NotNull String name) {
+    myMisses.getValue().fileLevel.add(name);
+  }
+
+  public boolean isUnknownNamespace(@NotNull String name) {
+    return myMisses.getValue().namespaces.contains(name);
+  }
+
+  public void markUnknownNamespace(@NotNull String name) {
+    myMisses.getValue().namespaces.add(name);
+  }
+}
@@ -60,6 +60,13 @@ public class SymbolResolveProcessor extends ResolveProcessor implements NameHint
     return myPlace;
   }
 
+  /**
+   * @return true if only classes are accepted, e.g. for constructor call Foo.
+   */
+  public boolean isOnlyJava() {
+    return onlyJava;
+  }
+
   public String getName(ResolveState resolveState) {
     return myName;
   }
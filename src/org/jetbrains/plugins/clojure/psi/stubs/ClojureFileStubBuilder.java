@@ -2,7 +2,9 @@ package org.jetbrains.plugins.clojure.psi.stubs;
 
 import com.intellij.psi.stubs.DefaultStubBuilder;
 import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import org.jetbrains.plugins.clojure.parser.ClojureReparseableElementType;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
 import org.jetbrains.plugins.clojure.psi.stubs.impl.ClFileStubImpl;
 
@@ -17,4 +19,11 @@ public class ClojureFileStubBuilder extends DefaultStubBuilder {
 
     return super.createStubForFile(file);
   }
-}
\ No newline at end of file
+
+  @Override
+  protected StubElement buildStubTreeFor(PsiElement elt, StubElement parentStub) {
+    // collapsed data literals contain no definitions, so they are not expanded
+    if (ClojureReparseableElementType.isCollapsed(elt.getNode())) return parentStub;
+    return super.buildStubTreeFor(elt, parentStub);
+  }
+}
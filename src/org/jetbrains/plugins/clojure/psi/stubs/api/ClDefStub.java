@@ -1,11 +1,36 @@
 package org.jetbrains.plugins.clojure.psi.stubs.api;
 
 import com.intellij.psi.stubs.NamedStub;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 
 /**
+ * Keeps everything completion and quick documentation show for a definition,
+ * see the corresponding methods of {@link ClDef}
+ *
  * @author ilyas
  */
 public interface ClDefStub extends NamedStub<ClDef> {
-  
+
+  /**
+   * @return Fully qualified name of the namespace the definition belongs to,
+   * i.e. the one of the closest preceding ns or in-ns form in the file
+   */
+  @Nullable
+  String getNamespace();
+
+  String getParameterString();
+
+  @Nullable
+  String getDocString();
+
+  @Nullable
+  String getTag();
+
+  boolean isPrivate();
+
+  boolean isDynamic();
+
+  boolean isMacro();
+
 }
@@ -13,5 +13,10 @@ public interface ClFileStub extends PsiFileStub<ClojureFile> {
   StringRef getName();
 
   boolean isClassDefinition();
+
+  /**
+   * @return Qualified name of the class generated for the file, null unless it is a class definition
+   */
+  StringRef getClassQualifiedName();
 }
 
@@ -5,6 +5,7 @@ import org.jetbrains.plugins.clojure.psi.impl.defs.ClDefImpl;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNamespaceIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.impl.ClDefStubImpl;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
 import com.intellij.psi.PsiElement;
@@ -14,8 +15,13 @@ import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.IndexSink;
 import com.intellij.lang.ASTNode;
 import com.intellij.util.io.StringRef;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * @author ilyas
@@ -23,16 +29,34 @@ import java.io.IOException;
 public class ClDefElementType extends ClStubElementType<ClDefStub, ClDef> {
 
   public ClDefElementType() {
-    super("def-element");
+    this("def-element");
+  }
+
+  protected ClDefElementType(@NonNls @NotNull String debugName) {
+    super(debugName);
   }
 
   public void serialize(ClDefStub stub, StubOutputStream dataStream) throws IOException {
     dataStream.writeName(stub.getName());
+    dataStream.writeName(stub.getNamespace());
+    dataStream.writeUTFFast(stub.getParameterString());
+    dataStream.writeName(stub.getTag());
+    dataStream.writeByte(ClDefStubImpl.packFlags(stub.isPrivate(), stub.isDynamic(), stub.isMacro()));
+    final String doc = stub.getDocString();
+    dataStream.writeBoolean(doc != null);
+    if (doc != null) {
+      dataStream.writeUTFFast(doc);
+    }
   }
 
   public ClDefStub deserialize(StubInputStream dataStream, StubElement parentStub) throws IOException {
     StringRef ref = dataStream.readName();
-    return new ClDefStubImpl(parentStub, ref, this);
+    StringRef ns = dataStream.readName();
+    String params = dataStream.readUTFFast();
+    StringRef tag = dataStream.readName();
+    byte flags = dataStream.readByte();
+    String doc = dataStream.readBoolean() ? dataStream.readUTFFast() : null;
+    return new ClDefStubImpl(parentStub, ref, ns, params, tag, doc, flags, this);
   }
 
   public PsiElement createElement(ASTNode node) {
@@ -44,7 +68,10 @@ public class ClDefElementType extends ClStubElementType<ClDefStub, ClDef> {
   }
 
   public ClDefStub createStub(ClDef psi, StubElement parentStub) {
-    return new ClDefStubImpl(parentStub, StringRef.fromString(psi.getName()), ClojureElementTypes.DEF);
+    final String namespace = findNamespace(parentStub);
+    return new ClDefStubImpl(parentStub, StringRef.fromString(psi.getName()), StringRef.fromString(namespace),
+        psi.getParameterString(), StringRef.fromString(psi.getTag()), psi.getDocString(),
+        ClDefStubImpl.packFlags(psi.isPrivate(), psi.isDynamic(), psi.isMacro()), this);
   }
 
   @Override
@@ -53,5 +80,38 @@ public class ClDefElementType extends ClStubElementType<ClDefStub, ClDef> {
     if (name != null) {
       sink.occurrence(ClDefNameIndex.KEY, name);
     }
+    final String namespace = stub.getNamespace();
+    if (namespace != null) {
+      sink.occurrence(ClDefNamespaceIndex.KEY, namespace);
+    }
+  }
+
+  /**
+   * Stubs are created in document order, so the siblings already attached to the parent stub precede the new one.
+   * Preceding definition knows its namespace already, hence the lookup stops at the closest ns, in-ns or def stub.
+   *
+   * @param parentStub parent of the definition stub being created
+   * @return name of the namespace a new definition belongs to
+   */
+  @Nullable
+  static String findNamespace(StubElement parentStub) {
+    for (StubElement stub = parentStub; stub != null; stub = stub.getParentStub()) {
+      if (stub instanceof ClDefStub) return ((ClDefStub) stub).getNamespace();
+      if (isNamespaceSwitch(stub)) return ((ClNsStub) stub).getName();
+
+      final List children = stub.getChildrenStubs();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        final StubElement child = (StubElement) children.get(i);
+        if (child instanceof ClDefStub) return ((ClDefStub) child).getNamespace();
+        if (isNamespaceSwitch(child)) return ((ClNsStub) child).getName();
+      }
+    }
+    return null;
+  }
+
+  // (create-ns 'x) does not change the current namespace
+  private static boolean isNamespaceSwitch(StubElement stub) {
+    return stub instanceof ClNsStub &&
+        (stub.getStubType() == ClojureElementTypes.NS || stub.getStubType() == ClojureElementTypes.IN_NS);
   }
 }
@@ -9,7 +9,7 @@ import java.io.IOException;
 
 import org.jetbrains.plugins.clojure.psi.stubs.ClojureFileStubBuilder;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureClassNameIndex;
-import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureFullScriptNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureScriptClassIndex;
 import org.jetbrains.plugins.clojure.psi.stubs.impl.ClFileStubImpl;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
 import org.jetbrains.plugins.clojure.file.ClojureFileType;
@@ -18,7 +18,7 @@ import org.jetbrains.plugins.clojure.file.ClojureFileType;
  * @author ilyas
  */
 public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
-  private static final int CACHES_VERSION = 11;
+  private static final int CACHES_VERSION = 15;
 
   public ClStubFileElementType() {
     super(ClojureFileType.CLOJURE_LANGUAGE);
@@ -47,6 +47,7 @@ public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
     dataStream.writeName(stub.getPackageName().toString());
     dataStream.writeName(stub.getName().toString());
     dataStream.writeBoolean(stub.isClassDefinition());
+    dataStream.writeName(StringRef.toString(stub.getClassQualifiedName()));
   }
 
   @Override
@@ -54,16 +55,18 @@ public class ClStubFileElementType extends IStubFileElementType<ClFileStub> {
     StringRef packName = dataStream.readName();
     StringRef name = dataStream.readName();
     boolean isScript = dataStream.readBoolean();
-    return new ClFileStubImpl(packName, name, isScript);
+    StringRef classFqn = dataStream.readName();
+    return new ClFileStubImpl(packName, name, isScript, classFqn);
   }
 
   public void indexStub(ClFileStub stub, IndexSink sink) {
     String name = stub.getName().toString();
     if (stub.isClassDefinition() && name != null) {
       sink.occurrence(ClojureClassNameIndex.KEY, name);
-      final String pName = stub.getPackageName().toString();
-      final String fqn = pName == null || pName.length() == 0 ? name : pName + "." + name;
-      sink.occurrence(ClojureFullScriptNameIndex.KEY, fqn.hashCode());
+      final String fqn = StringRef.toString(stub.getClassQualifiedName());
+      if (fqn != null) {
+        sink.occurrence(ClojureScriptClassIndex.KEY, fqn);
+      }
     }
   }
 
@@ -5,7 +5,6 @@ import com.intellij.psi.stubs.StubElement;
 import com.intellij.psi.stubs.StubInputStream;
 import com.intellij.psi.stubs.StubOutputStream;
 import com.intellij.util.io.StringRef;
-import com.intellij.openapi.util.text.StringUtil;
 import org.jetbrains.plugins.clojure.psi.ClStubElementType;
 import org.jetbrains.plugins.clojure.psi.api.ns.ClNs;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClNsStub;
@@ -13,7 +12,6 @@ import org.jetbrains.plugins.clojure.psi.stubs.impl.ClNsStubImpl;
 import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsNameIndex;
 
 import java.io.IOException;
-import java.util.List;
 
 /**
  * @author ilyas
@@ -37,15 +35,8 @@ public abstract class ClNsElementTypeBase extends ClStubElementType<ClNsStub, Cl
   public void indexStub(ClNsStub stub, IndexSink sink) {
     final String name = stub.getName();
     if (name != null && name.trim().length() > 0) {
-      final List<String> parcels = StringUtil.split(name, ".");
-      final StringBuffer buffer = new StringBuffer();
-      buffer.append(parcels.remove(0));
-      sink.occurrence(ClojureNsNameIndex.KEY, buffer.toString());
-      
-      for (String parcel : parcels) {
-        buffer.append(".").append(parcel);
-        sink.occurrence(ClojureNsNameIndex.KEY, buffer.toString());
-      }
+      // prefixes of the name are kept by ClojureNsChildrenIndex
+      sink.occurrence(ClojureNsNameIndex.KEY, name);
     }
   }
 }
\ No newline at end of file
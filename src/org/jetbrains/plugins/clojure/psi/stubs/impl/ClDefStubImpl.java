@@ -11,15 +11,62 @@ import org.jetbrains.plugins.clojure.psi.stubs.api.ClDefStub;
  * @author ilyas
  */
 public class ClDefStubImpl extends StubBase<ClDef> implements ClDefStub {
+  private static final byte PRIVATE = 0x01;
+  private static final byte DYNAMIC = 0x02;
+  private static final byte MACRO = 0x04;
+
   private final StringRef myName;
+  private final StringRef myNamespace;
+  private final String myParameters;
+  private final StringRef myTag;
+  private final String myDocString;
+  private final byte myFlags;
 
-  public ClDefStubImpl(StubElement parent, StringRef name, final IStubElementType elementType) {
+  public ClDefStubImpl(StubElement parent, StringRef name, StringRef namespace, String parameters, StringRef tag,
+                       String docString, byte flags, final IStubElementType elementType) {
     super(parent, elementType);
     myName = name;
+    myNamespace = namespace;
+    myParameters = parameters;
+    myTag = tag;
+    myDocString = docString;
+    myFlags = flags;
+  }
+
+  public static byte packFlags(boolean isPrivate, boolean isDynamic, boolean isMacro) {
+    return (byte) ((isPrivate ? PRIVATE : 0) | (isDynamic ? DYNAMIC : 0) | (isMacro ? MACRO : 0));
   }
 
   public String getName() {
     return StringRef.toString(myName);
   }
 
-}
\ No newline at end of file
+  public String getNamespace() {
+    return StringRef.toString(myNamespace);
+  }
+
+  public String getParameterString() {
+    return myParameters == null ? "" : myParameters;
+  }
+
+  public String getDocString() {
+    return myDocString;
+  }
+
+  public String getTag() {
+    return StringRef.toString(myTag);
+  }
+
+  public boolean isPrivate() {
+    return (myFlags & PRIVATE) != 0;
+  }
+
+  public boolean isDynamic() {
+    return (myFlags & DYNAMIC) != 0;
+  }
+
+  public boolean isMacro() {
+    return (myFlags & MACRO) != 0;
+  }
+
+}
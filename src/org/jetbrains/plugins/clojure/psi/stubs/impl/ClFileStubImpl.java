@@ -6,6 +6,7 @@ import com.intellij.util.io.StringRef;
 import com.intellij.openapi.util.text.StringUtil;
 import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
 import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.impl.synthetic.ClSyntheticClassImpl;
 import org.jetbrains.plugins.clojure.psi.stubs.api.ClFileStub;
 
 /**
@@ -15,19 +16,22 @@ public class ClFileStubImpl extends PsiFileStubImpl<ClojureFile> implements ClFi
   private final StringRef myPackageName;
   private final StringRef myName;
   private final boolean isClassDefinition;
+  private final StringRef myClassQualifiedName;
 
   public ClFileStubImpl(ClojureFile file) {
     super(file);
     myPackageName = StringRef.fromString(file.getPackageName());
     isClassDefinition = file.isClassDefiningFile();
     myName = StringRef.fromString(isClassDefinition ? file.getClassName() : null);
+    myClassQualifiedName = StringRef.fromString(isClassDefinition ? ClSyntheticClassImpl.computeQualifiedName(file) : null);
   }
 
-  public ClFileStubImpl(StringRef packName, StringRef name, boolean isScript) {
+  public ClFileStubImpl(StringRef packName, StringRef name, boolean isScript, StringRef classQualifiedName) {
     super(null);
     myPackageName = packName;
     myName = name;
     this.isClassDefinition = isScript;
+    myClassQualifiedName = classQualifiedName;
   }
 
   public IStubFileElementType getType() {
@@ -45,4 +49,8 @@ public class ClFileStubImpl extends PsiFileStubImpl<ClojureFile> implements ClFi
   public boolean isClassDefinition() {
     return isClassDefinition;
   }
+
+  public StringRef getClassQualifiedName() {
+    return myClassQualifiedName;
+  }
 }
\ No newline at end of file
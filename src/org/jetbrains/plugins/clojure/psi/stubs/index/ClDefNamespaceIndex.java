@@ -0,0 +1,21 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+
+/**
+ * Definitions by fully qualified name of the namespace they belong to
+ */
+public class ClDefNamespaceIndex extends StringStubIndexExtension<ClDef> {
+  public static final StubIndexKey<String, ClDef> KEY = StubIndexKey.createIndexKey("clj.def.namespace");
+
+  public StubIndexKey<String, ClDef> getKey() {
+    return KEY;
+  }
+
+  @Override
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+}
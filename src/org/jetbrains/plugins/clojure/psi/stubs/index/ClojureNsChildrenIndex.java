@@ -0,0 +1,110 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps every namespace and every prefix of its name to the direct children, e.g. ns foo.bar.baz gives
+ * "" -> [foo], foo -> [foo.bar], foo.bar -> [foo.bar.baz] and foo.bar.baz -> [].
+ * Only the text of ns, in-ns and create-ns forms is lexed, so neither lookups nor indexing touch PSI.
+ */
+public class ClojureNsChildrenIndex extends FileBasedIndexExtension<String, List<String>> {
+  public static final ID<String, List<String>> NAME = ID.create("clj.ns.children");
+
+  /**
+   * Parent of top-level namespaces
+   */
+  public static final String ROOT = "";
+
+  private final EnumeratorStringDescriptor myKeyDescriptor = new EnumeratorStringDescriptor();
+
+  @NotNull
+  public ID<String, List<String>> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  public DataIndexer<String, List<String>, FileContent> getIndexer() {
+    return new DataIndexer<String, List<String>, FileContent>() {
+      @NotNull
+      public Map<String, List<String>> map(FileContent inputData) {
+        final Map<String, List<String>> result = new HashMap<String, List<String>>();
+        for (ClojureNsFormReader.NsForm form : ClojureNsFormReader.read(inputData.getContentAsText())) {
+          addNamespace(result, form.getName());
+        }
+        return result;
+      }
+    };
+  }
+
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return myKeyDescriptor;
+  }
+
+  public DataExternalizer<List<String>> getValueExternalizer() {
+    return new DataExternalizer<List<String>>() {
+      public void save(DataOutput out, List<String> value) throws IOException {
+        out.writeInt(value.size());
+        for (String child : value) {
+          out.writeUTF(child);
+        }
+      }
+
+      public List<String> read(DataInput in) throws IOException {
+        final int size = in.readInt();
+        final ArrayList<String> result = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+          result.add(in.readUTF());
+        }
+        return result;
+      }
+    };
+  }
+
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new FileBasedIndex.InputFilter() {
+      public boolean acceptInput(VirtualFile file) {
+        return file.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE;
+      }
+    };
+  }
+
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+
+  private static void addNamespace(Map<String, List<String>> result, String ns) {
+    if (!result.containsKey(ns)) {
+      result.put(ns, new ArrayList<String>());
+    }
+    String child = ns;
+    while (true) {
+      final int dot = child.lastIndexOf('.');
+      final String parent = dot > 0 ? child.substring(0, dot) : ROOT;
+      List<String> children = result.get(parent);
+      final boolean known = children != null;
+      if (!known) {
+        children = new ArrayList<String>();
+        result.put(parent, children);
+      }
+      if (children.contains(child)) return;
+      children.add(child);
+      if (parent.equals(ROOT) || known) return;
+      child = parent;
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps every namespace declared by an ns form to its outgoing edges: namespaces loaded by :require and :use,
+ * the namespace referred by :refer-clojure and classes brought in by :import.
+ * Like ClojureNsChildrenIndex, it is built from tokens only.
+ */
+public class ClojureNsDependencyIndex extends FileBasedIndexExtension<String, List<ClojureNsDependencyIndex.Dependency>> {
+  public static final ID<String, List<Dependency>> NAME = ID.create("clj.ns.dependencies");
+
+  public enum Kind {
+    REQUIRE, USE, REFER, IMPORT
+  }
+
+  public static class Dependency {
+    private final Kind myKind;
+    private final String myTarget;
+
+    public Dependency(@NotNull Kind kind, @NotNull String target) {
+      myKind = kind;
+      myTarget = target;
+    }
+
+    @NotNull
+    public Kind getKind() {
+      return myKind;
+    }
+
+    /**
+     * @return Namespace name or, for Kind.IMPORT, fully qualified class name
+     */
+    @NotNull
+    public String getTarget() {
+      return myTarget;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Dependency)) return false;
+      final Dependency that = (Dependency) o;
+      return myKind == that.myKind && myTarget.equals(that.myTarget);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * myKind.hashCode() + myTarget.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return myKind + " " + myTarget;
+    }
+  }
+
+  private final EnumeratorStringDescriptor myKeyDescriptor = new EnumeratorStringDescriptor();
+
+  @NotNull
+  public ID<String, List<Dependency>> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  public DataIndexer<String, List<Dependency>, FileContent> getIndexer() {
+    return new DataIndexer<String, List<Dependency>, FileContent>() {
+      @NotNull
+      public Map<String, List<Dependency>> map(FileContent inputData) {
+        final Map<String, List<Dependency>> result = new HashMap<String, List<Dependency>>();
+        for (ClojureNsFormReader.NsForm form : ClojureNsFormReader.read(inputData.getContentAsText())) {
+          if (form.getType() != ClojureElementTypes.NS) continue;
+          List<Dependency> dependencies = result.get(form.getName());
+          if (dependencies == null) {
+            dependencies = new ArrayList<Dependency>();
+            result.put(form.getName(), dependencies);
+          }
+          for (Dependency dependency : findDependencies(form.getClauses())) {
+            if (!dependencies.contains(dependency)) {
+              dependencies.add(dependency);
+            }
+          }
+        }
+        return result;
+      }
+    };
+  }
+
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return myKeyDescriptor;
+  }
+
+  public DataExternalizer<List<Dependency>> getValueExternalizer() {
+    return new DataExternalizer<List<Dependency>>() {
+      public void save(DataOutput out, List<Dependency> value) throws IOException {
+        out.writeInt(value.size());
+        for (Dependency dependency : value) {
+          out.writeByte(dependency.getKind().ordinal());
+          out.writeUTF(dependency.getTarget());
+        }
+      }
+
+      public List<Dependency> read(DataInput in) throws IOException {
+        final Kind[] kinds = Kind.values();
+        final int size = in.readInt();
+        final ArrayList<Dependency> result = new ArrayList<Dependency>(size);
+        for (int i = 0; i < size; i++) {
+          final Kind kind = kinds[in.readByte()];
+          result.add(new Dependency(kind, in.readUTF()));
+        }
+        return result;
+      }
+    };
+  }
+
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new FileBasedIndex.InputFilter() {
+      public boolean acceptInput(VirtualFile file) {
+        return file.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE;
+      }
+    };
+  }
+
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+
+  /**
+   * @param clauses Clauses of an ns form as read by ClojureNsFormReader
+   */
+  public static List<Dependency> findDependencies(List<Object> clauses) {
+    final ArrayList<Dependency> result = new ArrayList<Dependency>();
+    for (Object clause : clauses) {
+      if (!(clause instanceof List) || ((List) clause).isEmpty()) continue;
+      final List<?> forms = (List<?>) clause;
+      final Object head = forms.get(0);
+      final List<?> args = forms.subList(1, forms.size());
+      if (":require".equals(head)) {
+        addLibs(result, Kind.REQUIRE, args);
+      } else if (":use".equals(head)) {
+        addLibs(result, Kind.USE, args);
+      } else if (":refer-clojure".equals(head)) {
+        result.add(new Dependency(Kind.REFER, "clojure.core"));
+      } else if (":import".equals(head)) {
+        addImports(result, args);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param clauses Clauses of an ns form as read by ClojureNsFormReader
+   * @return Namespace names by aliases given with :as in :require and :use clauses
+   */
+  public static Map<String, String> findAliases(List<Object> clauses) {
+    final Map<String, String> result = new HashMap<String, String>();
+    for (Object clause : clauses) {
+      if (!(clause instanceof List) || ((List) clause).isEmpty()) continue;
+      final List<?> forms = (List<?>) clause;
+      final Object head = forms.get(0);
+      if (!":require".equals(head) && !":use".equals(head)) continue;
+      processLibs(forms.subList(1, forms.size()), new LibProcessor() {
+        public void process(String lib, List<?> options) {
+          final int as = options.indexOf(":as");
+          if (as >= 0 && as + 1 < options.size() && isSymbol(options.get(as + 1))) {
+            result.put((String) options.get(as + 1), lib);
+          }
+        }
+      });
+    }
+    return result;
+  }
+
+  private interface LibProcessor {
+    /**
+     * @param options Keywords and values following the lib name in a libspec
+     */
+    void process(String lib, List<?> options);
+  }
+
+  private static void addLibs(final List<Dependency> result, final Kind kind, List<?> args) {
+    processLibs(args, new LibProcessor() {
+      public void process(String lib, List<?> options) {
+        result.add(new Dependency(kind, lib));
+      }
+    });
+  }
+
+  private static void processLibs(List<?> args, LibProcessor processor) {
+    for (Object arg : args) {
+      if (isSymbol(arg)) {
+        processor.process((String) arg, Collections.emptyList());
+      } else if (isLibSpec(arg)) {
+        processLibSpec(null, (List<?>) arg, processor);
+      } else if (arg instanceof List && !((List) arg).isEmpty() && isSymbol(((List) arg).get(0))) {
+        // prefix list
+        final List<?> prefixList = (List<?>) arg;
+        final String prefix = (String) prefixList.get(0);
+        for (Object lib : prefixList.subList(1, prefixList.size())) {
+          if (isSymbol(lib)) {
+            processor.process(prefix + "." + lib, Collections.emptyList());
+          } else if (isLibSpec(lib)) {
+            processLibSpec(prefix, (List<?>) lib, processor);
+          }
+        }
+      }
+    }
+  }
+
+  private static void processLibSpec(String prefix, List<?> libSpec, LibProcessor processor) {
+    final String lib = (String) libSpec.get(0);
+    processor.process(prefix == null ? lib : prefix + "." + lib, libSpec.subList(1, libSpec.size()));
+  }
+
+  private static void addImports(List<Dependency> result, List<?> args) {
+    for (Object arg : args) {
+      if (isSymbol(arg)) {
+        result.add(new Dependency(Kind.IMPORT, (String) arg));
+      } else if (arg instanceof List && !((List) arg).isEmpty() && isSymbol(((List) arg).get(0))) {
+        final List<?> importList = (List<?>) arg;
+        final String packageName = (String) importList.get(0);
+        for (Object className : importList.subList(1, importList.size())) {
+          if (isSymbol(className)) {
+            result.add(new Dependency(Kind.IMPORT, packageName + "." + className));
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isSymbol(Object form) {
+    return form instanceof String && !((String) form).startsWith(":");
+  }
+
+  /**
+   * Same as clojure.core/libspec?: a lib name, optionally followed by options
+   */
+  private static boolean isLibSpec(Object form) {
+    if (!(form instanceof List)) return false;
+    final List<?> list = (List<?>) form;
+    return !list.isEmpty() && isSymbol(list.get(0)) &&
+        (list.size() == 1 || list.get(1) instanceof String && !isSymbol(list.get(1)));
+  }
+}
@@ -0,0 +1,181 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads ns, in-ns and create-ns forms right from the tokens of a file, so file-based indices need no PSI.
+ * The forms are recognized the same way as ClojureParser does, by the text of the list head.
+ * <p/>
+ * Clauses of an ns form are read as plain data: a symbol or a keyword is its text,
+ * a list, a vector or a map is a List of its forms. Literals and metadata are dropped.
+ */
+public class ClojureNsFormReader implements ClojureTokenTypes {
+
+  private static final TokenSet LEFT_BRACES = TokenSet.create(LEFT_PAREN, LEFT_SQUARE, LEFT_CURLY);
+  private static final TokenSet RIGHT_BRACES = TokenSet.create(RIGHT_PAREN, RIGHT_SQUARE, RIGHT_CURLY);
+
+  public static class NsForm {
+    private final IElementType myType;
+    private final String myName;
+    private final List<Object> myClauses;
+    private final int myOffset;
+
+    public NsForm(IElementType type, String name, List<Object> clauses, int offset) {
+      myType = type;
+      myName = name;
+      myClauses = clauses;
+      myOffset = offset;
+    }
+
+    /**
+     * @return One of ClojureElementTypes.NS, IN_NS and CREATE_NS
+     */
+    public IElementType getType() {
+      return myType;
+    }
+
+    public String getName() {
+      return myName;
+    }
+
+    /**
+     * @return Forms following the name, empty for in-ns and create-ns
+     */
+    public List<Object> getClauses() {
+      return myClauses;
+    }
+
+    /**
+     * @return Offset of the opening parenthesis of the form
+     */
+    public int getOffset() {
+      return myOffset;
+    }
+  }
+
+  @NotNull
+  public static List<NsForm> read(@NotNull CharSequence text) {
+    final ArrayList<NsForm> result = new ArrayList<NsForm>();
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(text);
+    while (lexer.getTokenType() != null) {
+      if (lexer.getTokenType() != LEFT_PAREN) {
+        lexer.advance();
+        continue;
+      }
+      final int offset = lexer.getTokenStart();
+      lexer.advance();
+      skipWhitespace(lexer);
+      if (lexer.getTokenType() != symATOM) continue;
+
+      final IElementType type = ClojureParser.getListType(text, lexer.getTokenStart(), lexer.getTokenEnd());
+      lexer.advance();
+      if (type != ClojureElementTypes.NS && type != ClojureElementTypes.IN_NS && type != ClojureElementTypes.CREATE_NS ||
+          ATOMS.contains(lexer.getTokenType())) {
+        continue;
+      }
+
+      skipWhitespace(lexer);
+      while (lexer.getTokenType() == QUOTE || lexer.getTokenType() == UP || lexer.getTokenType() == SHARPUP) {
+        final boolean meta = lexer.getTokenType() != QUOTE;
+        lexer.advance();
+        skipWhitespace(lexer);
+        if (meta) {
+          skipForm(lexer);
+          skipWhitespace(lexer);
+        }
+      }
+
+      final int start = lexer.getTokenStart();
+      boolean qualified = false;
+      while (ATOMS.contains(lexer.getTokenType())) {
+        qualified |= lexer.getTokenType() == symNS_SEP;
+        lexer.advance();
+      }
+      final int end = getOffset(lexer, text);
+      if (end > start && !qualified) {
+        final List<Object> clauses = type == ClojureElementTypes.NS ? readForms(lexer, text) : Collections.emptyList();
+        result.add(new NsForm(type, text.subSequence(start, end).toString(), clauses, offset));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reads forms up to the closing brace of the enclosing form
+   */
+  private static List<Object> readForms(Lexer lexer, CharSequence text) {
+    final List<Object> result = new ArrayList<Object>();
+    final ArrayList<List<Object>> stack = new ArrayList<List<Object>>();
+    List<Object> current = result;
+    for (IElementType token = lexer.getTokenType(); token != null; token = lexer.getTokenType()) {
+      if (LEFT_BRACES.contains(token)) {
+        // see ClojureParser#isTopLevelFormStart
+        if (token == LEFT_PAREN && ClojureParser.isTopLevelFormStart(text, lexer.getTokenStart())) break;
+        final List<Object> form = new ArrayList<Object>();
+        current.add(form);
+        stack.add(current);
+        current = form;
+        lexer.advance();
+      } else if (RIGHT_BRACES.contains(token)) {
+        lexer.advance();
+        if (stack.isEmpty()) break;
+        current = stack.remove(stack.size() - 1);
+      } else if (ATOMS.contains(token) || token == COLON_SYMBOL) {
+        final int start = lexer.getTokenStart();
+        do {
+          lexer.advance();
+        } while (token != COLON_SYMBOL && ATOMS.contains(lexer.getTokenType()));
+        current.add(text.subSequence(start, getOffset(lexer, text)).toString());
+      } else if (token == UP || token == SHARPUP) {
+        lexer.advance();
+        skipWhitespace(lexer);
+        skipForm(lexer);
+      } else {
+        lexer.advance();
+      }
+    }
+    return result;
+  }
+
+  private static int getOffset(Lexer lexer, CharSequence text) {
+    return lexer.getTokenType() == null ? text.length() : lexer.getTokenStart();
+  }
+
+  private static void skipWhitespace(Lexer lexer) {
+    while (WHITESPACE_SET.contains(lexer.getTokenType()) || COMMENTS.contains(lexer.getTokenType())) {
+      lexer.advance();
+    }
+  }
+
+  // metadata value: a keyword, a symbol, a string or a map
+  private static void skipForm(Lexer lexer) {
+    if (!LEFT_BRACES.contains(lexer.getTokenType())) {
+      do {
+        lexer.advance();
+      } while (ATOMS.contains(lexer.getTokenType()));
+      return;
+    }
+    int depth = 0;
+    do {
+      final IElementType token = lexer.getTokenType();
+      if (LEFT_BRACES.contains(token)) {
+        depth++;
+      } else if (RIGHT_BRACES.contains(token)) {
+        depth--;
+      }
+      lexer.advance();
+    } while (depth > 0 && lexer.getTokenType() != null);
+  }
+}
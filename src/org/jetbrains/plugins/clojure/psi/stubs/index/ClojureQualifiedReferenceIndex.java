@@ -0,0 +1,156 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.vfs.JarFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.lexer.ClojureFlexLexer;
+import org.jetbrains.plugins.clojure.lexer.ClojureTokenTypes;
+import org.jetbrains.plugins.clojure.parser.ClojureElementTypes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Maps "namespace/name" of a var to offsets of qualified symbols referring to it, e.g. both str/join and
+ * clojure.string/join occurrences are found by "clojure.string/join" in a file which requires clojure.string :as str.
+ * Qualifier is looked up in aliases of the ns form in effect at the occurrence, unknown qualifier is taken
+ * as a namespace name. Unqualified symbols are not indexed, as locals, :refer and :use make them ambiguous.
+ * <p/>
+ * Sources in jars, e.g. clojure.jar, are skipped to keep the first indexing of libraries cheap,
+ * ClojureReferenceSearcher finds usages there by text search.
+ */
+public class ClojureQualifiedReferenceIndex extends FileBasedIndexExtension<String, List<Integer>> {
+  public static final ID<String, List<Integer>> NAME = ID.create("clj.qualified.references");
+
+  private final EnumeratorStringDescriptor myKeyDescriptor = new EnumeratorStringDescriptor();
+
+  @NotNull
+  public ID<String, List<Integer>> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  public DataIndexer<String, List<Integer>, FileContent> getIndexer() {
+    return new DataIndexer<String, List<Integer>, FileContent>() {
+      @NotNull
+      public Map<String, List<Integer>> map(FileContent inputData) {
+        return findReferences(inputData.getContentAsText());
+      }
+    };
+  }
+
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return myKeyDescriptor;
+  }
+
+  public DataExternalizer<List<Integer>> getValueExternalizer() {
+    return new DataExternalizer<List<Integer>>() {
+      public void save(DataOutput out, List<Integer> value) throws IOException {
+        out.writeInt(value.size());
+        for (Integer offset : value) {
+          out.writeInt(offset);
+        }
+      }
+
+      public List<Integer> read(DataInput in) throws IOException {
+        final int size = in.readInt();
+        final ArrayList<Integer> result = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+          result.add(in.readInt());
+        }
+        return result;
+      }
+    };
+  }
+
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new FileBasedIndex.InputFilter() {
+      public boolean acceptInput(VirtualFile file) {
+        return file.getFileType() == ClojureFileType.CLOJURE_FILE_TYPE && !(file.getFileSystem() instanceof JarFileSystem);
+      }
+    };
+  }
+
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+
+  @NotNull
+  public static String getKey(@NotNull String namespace, @NotNull String name) {
+    return namespace + "/" + name;
+  }
+
+  /**
+   * @return Offsets of qualified symbols by "namespace/name" they refer to
+   */
+  public static Map<String, List<Integer>> findReferences(CharSequence text) {
+    final List<ClojureNsFormReader.NsForm> forms = ClojureNsFormReader.read(text);
+    final Map<String, Map<String, String>> aliases = new HashMap<String, Map<String, String>>();
+    for (ClojureNsFormReader.NsForm form : forms) {
+      if (form.getType() == ClojureElementTypes.NS) {
+        Map<String, String> map = aliases.get(form.getName());
+        if (map == null) {
+          map = new HashMap<String, String>();
+          aliases.put(form.getName(), map);
+        }
+        map.putAll(ClojureNsDependencyIndex.findAliases(form.getClauses()));
+      }
+    }
+
+    final Map<String, List<Integer>> result = new HashMap<String, List<Integer>>();
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(text);
+    int formIndex = 0;
+    Map<String, String> current = null;
+    while (lexer.getTokenType() != null) {
+      if (!ClojureTokenTypes.ATOMS.contains(lexer.getTokenType())) {
+        lexer.advance();
+        continue;
+      }
+      final int start = lexer.getTokenStart();
+      while (formIndex < forms.size() && forms.get(formIndex).getOffset() < start) {
+        final ClojureNsFormReader.NsForm form = forms.get(formIndex++);
+        // (create-ns 'x) does not change the current namespace
+        if (form.getType() != ClojureElementTypes.CREATE_NS) {
+          current = aliases.get(form.getName());
+        }
+      }
+
+      int separator = -1;
+      do {
+        if (lexer.getTokenType() == ClojureTokenTypes.symNS_SEP) separator = lexer.getTokenStart();
+        lexer.advance();
+      } while (ClojureTokenTypes.ATOMS.contains(lexer.getTokenType()));
+      final int end = lexer.getTokenType() == null ? text.length() : lexer.getTokenStart();
+      if (separator <= start || separator + 1 >= end) continue;
+
+      final String namespace = resolveQualifier(text.subSequence(start, separator).toString(), current);
+      final String key = getKey(namespace, text.subSequence(separator + 1, end).toString());
+      List<Integer> offsets = result.get(key);
+      if (offsets == null) {
+        offsets = new ArrayList<Integer>();
+        result.put(key, offsets);
+      }
+      offsets.add(start);
+    }
+    return result;
+  }
+
+  private static String resolveQualifier(String qualifier, @Nullable Map<String, String> aliases) {
+    final String namespace = aliases == null ? null : aliases.get(qualifier);
+    return namespace != null ? namespace : qualifier;
+  }
+}
@@ -0,0 +1,36 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.openapi.project.Project;
+
+import java.util.Collection;
+
+import org.jetbrains.plugins.clojure.psi.api.ClojureFile;
+import org.jetbrains.plugins.clojure.psi.impl.search.ClojureSourceFilterScope;
+
+/**
+ * Class defining files by exact qualified name of the class they define
+ */
+public class ClojureScriptClassIndex extends StringStubIndexExtension<ClojureFile> {
+  public static final StubIndexKey<String, ClojureFile> KEY = StubIndexKey.createIndexKey("clj.script.class.fqn");
+
+  private static final ClojureScriptClassIndex ourInstance = new ClojureScriptClassIndex();
+  public static ClojureScriptClassIndex getInstance() {
+    return ourInstance;
+  }
+
+  public StubIndexKey<String, ClojureFile> getKey() {
+    return KEY;
+  }
+
+  public Collection<ClojureFile> get(final String fqn, final Project project, final GlobalSearchScope scope) {
+    return super.get(fqn, project, new ClojureSourceFilterScope(scope, project));
+  }
+
+  @Override
+  public int getVersion() {
+    return ClojureIndexVersion.VERSION;
+  }
+}
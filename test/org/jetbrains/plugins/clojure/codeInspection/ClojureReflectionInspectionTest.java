@@ -0,0 +1,162 @@
+package org.jetbrains.plugins.clojure.codeInspection;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemDescriptor;
+import com.intellij.codeInspection.ProblemHighlightType;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.codeInspection.QuickFix;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.CommandProcessor;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.LocalTimeCounter;
+import org.jetbrains.plugins.clojure.ClojureBundle;
+import org.jetbrains.plugins.clojure.file.ClojureFileType;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.resolve.ClojureResolveTestCaseBase;
+import org.jetbrains.plugins.clojure.util.TestUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Problems are described as "text:description" of the reported element
+ */
+public class ClojureReflectionInspectionTest extends ClojureResolveTestCaseBase {
+
+  @Override
+  public String getTestDataPath() {
+    return TestUtils.getTestDataPath() + "/inspections/reflection/";
+  }
+
+  private VirtualFile findFile(String fileName) {
+    final VirtualFile vFile = LocalFileSystem.getInstance().findFileByIoFile(new File(getTestFolderPath(), fileName));
+    assertNotNull(vFile);
+    return vFile;
+  }
+
+  private List<ProblemDescriptor> inspect(String fileName) {
+    final PsiFile file = PsiManager.getInstance(getProject()).findFile(findFile(fileName));
+    assertNotNull(file);
+    final ProblemsHolder holder = new ProblemsHolder(InspectionManager.getInstance(getProject()), file, false);
+    final PsiElementVisitor visitor = new ClojureReflectionInspection().buildVisitor(holder, false);
+    file.accept(new PsiRecursiveElementWalkingVisitor() {
+      @Override
+      public void visitElement(PsiElement element) {
+        element.accept(visitor);
+        super.visitElement(element);
+      }
+    });
+    return holder.getResults();
+  }
+
+  private static List<String> describe(List<ProblemDescriptor> problems) {
+    final List<String> result = new ArrayList<String>();
+    for (ProblemDescriptor problem : problems) {
+      result.add(problem.getPsiElement().getText() + ":" + problem.getDescriptionTemplate());
+    }
+    return result;
+  }
+
+  private static Set<String> getFixNames(ProblemDescriptor problem) {
+    final Set<String> result = new HashSet<String>();
+    final QuickFix[] fixes = problem.getFixes();
+    if (fixes != null) {
+      for (QuickFix fix : fixes) {
+        result.add(fix.getName());
+      }
+    }
+    return result;
+  }
+
+  private static ClSymbol findSymbol(PsiFile file, String context, String name) {
+    final int offset = file.getText().indexOf(context) + context.lastIndexOf(name);
+    final ClSymbol symbol = PsiTreeUtil.getParentOfType(file.findElementAt(offset), ClSymbol.class, false);
+    assertNotNull(symbol);
+    assertEquals(name, symbol.getText());
+    return symbol;
+  }
+
+  private void applyFix(final ClojureAddTypeHintFix fix, PsiElement element) {
+    final ProblemDescriptor descriptor = InspectionManager.getInstance(getProject()).createProblemDescriptor(element,
+        "", fix, ProblemHighlightType.GENERIC_ERROR_OR_WARNING, true);
+    CommandProcessor.getInstance().executeCommand(getProject(), new Runnable() {
+      public void run() {
+        ApplicationManager.getApplication().runWriteAction(new Runnable() {
+          public void run() {
+            fix.applyFix(getProject(), descriptor);
+          }
+        });
+      }
+    }, fix.getName(), null);
+  }
+
+  public void testHinted() throws Exception {
+    assertEquals(new ArrayList<String>(), describe(inspect("hinted.clj")));
+  }
+
+  public void testUnhinted() throws Exception {
+    final List<ProblemDescriptor> problems = inspect("unhinted.clj");
+    // the first call of .. has x as the target
+    final List<String> expected = new ArrayList<String>();
+    expected.add("s:" + ClojureBundle.message("inspection.reflection.receiver", "toUpperCase"));
+    expected.add("s:" + ClojureBundle.message("inspection.reflection.receiver", "length"));
+    expected.add("x:" + ClojureBundle.message("inspection.reflection.receiver", "getParentFile"));
+    assertEquals(expected, describe(problems));
+    assertTrue(getFixNames(problems.get(0)).contains(ClojureBundle.message("inspection.reflection.add.hint", "String")));
+  }
+
+  public void testMissingMember() throws Exception {
+    // Object says nothing about the receiver, other classes must have the member of the arity
+    final List<String> expected = new ArrayList<String>();
+    expected.add("s:" + ClojureBundle.message("inspection.reflection.receiver", "toUpperCase"));
+    expected.add("s:" + ClojureBundle.message("inspection.reflection.no.member", "intValue", 0, "String"));
+    expected.add("s:" + ClojureBundle.message("inspection.reflection.no.member", "length", 1, "String"));
+    assertEquals(expected, describe(inspect("missing.clj")));
+  }
+
+  public void testLiterals() throws Exception {
+    assertEquals(new ArrayList<String>(), describe(inspect("literals.clj")));
+  }
+
+  public void testStaticOverloads() throws Exception {
+    final List<ProblemDescriptor> problems = inspect("overloads.clj");
+    // Integer/valueOf has one overload of arity 2
+    final List<String> expected = new ArrayList<String>();
+    expected.add("x:" + ClojureBundle.message("inspection.reflection.argument", "abs", "Math"));
+    expected.add("x:" + ClojureBundle.message("inspection.reflection.argument", "valueOf", "String"));
+    assertEquals(expected, describe(problems));
+    // abs is overloaded for primitives only
+    assertTrue(getFixNames(problems.get(0)).isEmpty());
+    assertTrue(getFixNames(problems.get(1)).contains(ClojureBundle.message("inspection.reflection.add.hint", "Object")));
+  }
+
+  public void testAddTypeHint() throws Exception {
+    // a copy, so that test data are not changed
+    final String text = VfsUtil.loadText(findFile("hint.clj"));
+    final PsiFile file = PsiFileFactory.getInstance(getProject()).createFileFromText("hint.clj",
+        ClojureFileType.CLOJURE_FILE_TYPE, text, LocalTimeCounter.currentTime(), true);
+
+    final ClojureAddTypeHintFix stringFix = new ClojureAddTypeHintFix("java.lang.String");
+    assertEquals(ClojureBundle.message("inspection.reflection.add.hint", "String"), stringFix.getName());
+    applyFix(stringFix, findSymbol(file, "(.toUpperCase s)", "s"));
+
+    final ClojureAddTypeHintFix localeFix = new ClojureAddTypeHintFix("java.util.Locale");
+    assertEquals(ClojureBundle.message("inspection.reflection.add.hint", "java.util.Locale"), localeFix.getName());
+    applyFix(localeFix, findSymbol(file, "(.getLanguage l)", "l"));
+
+    assertEquals(text.replace("(.toUpperCase s)", "(.toUpperCase ^String s)")
+        .replace("(.getLanguage l)", "(.getLanguage ^java.util.Locale l)"), file.getText());
+  }
+}
@@ -0,0 +1,158 @@
+package org.jetbrains.plugins.clojure.findUsages;
+
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.impl.cache.CacheManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.UsageSearchContext;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureQualifiedReferenceIndex;
+import org.jetbrains.plugins.clojure.resolve.ClojureResolveTestCaseBase;
+import org.jetbrains.plugins.clojure.util.TestUtils;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Usages are described as "file:text" of the referring symbol
+ */
+public class ClojureFindUsagesTest extends ClojureResolveTestCaseBase {
+
+  @Override
+  public String getTestDataPath() {
+    return TestUtils.getTestDataPath() + "/findUsages/";
+  }
+
+  private GlobalSearchScope getScope() {
+    return GlobalSearchScope.projectScope(getProject());
+  }
+
+  private ClDef findDefinition(String name) {
+    final Collection<ClDef> defs = StubIndex.getInstance().get(ClDefNameIndex.KEY, name, getProject(), getScope());
+    assertEquals(1, defs.size());
+    return defs.iterator().next();
+  }
+
+  private Set<String> findUsages(ClDef def) {
+    final Set<String> result = new HashSet<String>();
+    for (PsiReference reference : ReferencesSearch.search(def, getScope()).findAll()) {
+      result.add(describe(reference.getElement()));
+    }
+    return result;
+  }
+
+  /**
+   * @return Symbols of all the test files, which resolve to the definition
+   */
+  private Set<String> resolveUsages(ClDef def) {
+    final VirtualFile dir = LocalFileSystem.getInstance().findFileByIoFile(new File(getTestFolderPath()));
+    assertNotNull(dir);
+    final Set<String> result = new HashSet<String>();
+    for (VirtualFile vFile : dir.getChildren()) {
+      final PsiFile file = PsiManager.getInstance(getProject()).findFile(vFile);
+      assertNotNull(file);
+      for (ClSymbol symbol : PsiTreeUtil.collectElementsOfType(file, ClSymbol.class)) {
+        for (PsiReference reference : symbol.getReferences()) {
+          if (reference.resolve() == def) {
+            result.add(describe(reference.getElement()));
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  private Set<String> getFilesWithWord(String word) {
+    final Set<String> result = new HashSet<String>();
+    for (PsiFile file : CacheManager.SERVICE.getInstance(getProject()).getFilesWithWord(word, UsageSearchContext.IN_CODE,
+        getScope(), true)) {
+      result.add(file.getName());
+    }
+    return result;
+  }
+
+  private Set<String> getFilesWithQualifiedReference(String namespace, String name) {
+    final Set<String> result = new HashSet<String>();
+    FileBasedIndex.getInstance().processValues(ClojureQualifiedReferenceIndex.NAME,
+        ClojureQualifiedReferenceIndex.getKey(namespace, name), null, new FileBasedIndex.ValueProcessor<List<Integer>>() {
+      public boolean process(VirtualFile file, List<Integer> value) {
+        result.add(file.getName());
+        return true;
+      }
+    }, getScope());
+    return result;
+  }
+
+  private static String describe(PsiElement element) {
+    return element.getContainingFile().getName() + ":" + element.getText();
+  }
+
+  private static Set<String> setOf(String... items) {
+    final Set<String> result = new HashSet<String>();
+    for (String item : items) {
+      result.add(item);
+    }
+    return result;
+  }
+
+  public void testHyphenatedName() throws Exception {
+    // decoy.clj has get-user and by-id, but not the whole symbol
+    assertEquals(setOf("users.clj", "handler.clj"), getFilesWithWord("get-user-by-id"));
+    assertTrue(getFilesWithWord("get-user").contains("decoy.clj"));
+
+    final ClDef def = findDefinition("get-user-by-id");
+    final Set<String> usages = findUsages(def);
+    assertTrue(usages.contains("users.clj:get-user-by-id"));
+    assertTrue(usages.contains("handler.clj:app.users/get-user-by-id"));
+    for (String usage : usages) {
+      assertFalse(usage, usage.startsWith("decoy.clj"));
+    }
+    // nothing found by resolve is lost
+    assertTrue(usages.containsAll(resolveUsages(def)));
+  }
+
+  public void testAliasedName() throws Exception {
+    assertEquals(setOf("aliased.clj", "full.clj"), getFilesWithQualifiedReference("app.util", "parse-date"));
+
+    final ClDef def = findDefinition("parse-date");
+    final Set<String> usages = findUsages(def);
+    assertTrue(usages.contains("aliased.clj:u/parse-date"));
+    assertTrue(usages.contains("full.clj:app.util/parse-date"));
+    assertTrue(usages.containsAll(resolveUsages(def)));
+  }
+
+  public void testInNsAliases() throws Exception {
+    final VirtualFile file = LocalFileSystem.getInstance().findFileByIoFile(new File(getTestFolderPath(), "switched.clj"));
+    assertNotNull(file);
+    final String text = VfsUtil.loadText(file);
+    final Map<String, List<Integer>> references = ClojureQualifiedReferenceIndex.findReferences(text);
+
+    // u is an alias in app.first only
+    final List<Integer> aliased = references.get("app.util/parse-date");
+    assertNotNull(aliased);
+    assertEquals(2, aliased.size());
+    assertTrue(aliased.get(0) < text.indexOf("(in-ns 'app.second)"));
+    assertTrue(aliased.get(1) > text.indexOf("(in-ns 'app.first)"));
+
+    final List<Integer> unknown = references.get("u/parse-date");
+    assertNotNull(unknown);
+    assertEquals(1, unknown.size());
+    assertTrue(unknown.get(0) > text.indexOf("(in-ns 'app.second)"));
+    assertTrue(unknown.get(0) < text.indexOf("(in-ns 'app.first)"));
+  }
+}
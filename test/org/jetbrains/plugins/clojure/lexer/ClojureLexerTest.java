@@ -0,0 +1,120 @@
+package org.jetbrains.plugins.clojure.lexer;
+
+import com.intellij.lexer.Lexer;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+/**
+ * Tokens of symbols and states they start in. Editor highlighter restarts lexing at tokens in the initial state,
+ * so any token in that state must be lexed the same way from there as from the start of the text.
+ */
+public class ClojureLexerTest extends TestCase {
+
+  private static String lex(String text, int start, int state) {
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(text, start, text.length(), state);
+    final StringBuilder builder = new StringBuilder();
+    for (; lexer.getTokenType() != null; lexer.advance()) {
+      builder.append(lexer.getTokenType()).append(" ('").append(lexer.getTokenText()).append("') ")
+          .append(lexer.getState()).append("\n");
+    }
+    return builder.toString();
+  }
+
+  private static void doTest(String text, String expected) {
+    Assert.assertEquals(expected, lex(text, 0, 0));
+  }
+
+  public void testQualifiedSymbols() {
+    doTest("clojure.core/map foo.bar/baz",
+        "atom ('clojure') 0\n" +
+        "dot ('.') 1\n" +
+        "atom ('core') 1\n" +
+        "ns-sep ('/') 1\n" +
+        "atom ('map') 1\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('foo') 0\n" +
+        "dot ('.') 1\n" +
+        "atom ('bar') 1\n" +
+        "ns-sep ('/') 1\n" +
+        "atom ('baz') 1\n");
+  }
+
+  public void testDottedNamespace() {
+    doTest("a.b/c",
+        "atom ('a') 0\n" +
+        "dot ('.') 1\n" +
+        "atom ('b') 1\n" +
+        "ns-sep ('/') 1\n" +
+        "atom ('c') 1\n");
+  }
+
+  public void testSymbolsInForms() {
+    doTest("(foo.bar/baz x) [a/b .method Foo. x# ns/x.y]",
+        "( ('(') 0\n" +
+        "atom ('foo') 0\n" +
+        "dot ('.') 1\n" +
+        "atom ('bar') 1\n" +
+        "ns-sep ('/') 1\n" +
+        "atom ('baz') 1\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('x') 0\n" +
+        ") (')') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "[ ('[') 0\n" +
+        "atom ('a') 0\n" +
+        "ns-sep ('/') 1\n" +
+        "atom ('b') 1\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('.method') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('Foo.') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('x#') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('ns') 0\n" +
+        "ns-sep ('/') 1\n" +
+        "atom ('x') 1\n" +
+        "dot ('.') 1\n" +
+        "atom ('y') 1\n" +
+        "] (']') 0\n");
+  }
+
+  public void testTrailingSeparators() {
+    doTest("foo. .. ./ a/ b//",
+        "atom ('foo.') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('..') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('./') 0\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('a') 0\n" +
+        "ns-sep ('/') 1\n" +
+        "WHITE_SPACE (' ') 0\n" +
+        "atom ('b') 0\n" +
+        "ns-sep ('/') 1\n" +
+        "ns-sep ('/') 1\n");
+  }
+
+  public void testRestartAtSymbolBoundaries() {
+    final String text = "(ns foo.bar (:require [clojure.string :as str]))\n" +
+        "(defn f [x] (str/join \", \" (java.lang.String/valueOf x)))\n" +
+        "#'a.b/c ^String s :a.b/c (. a b) (.. x (y)) a/ b// x#";
+    final String tokens = lex(text, 0, 0);
+
+    final Lexer lexer = new ClojureFlexLexer();
+    lexer.start(text);
+    int restarts = 0;
+    for (; lexer.getTokenType() != null; lexer.advance()) {
+      if (ClojureTokenTypes.WHITESPACE_SET.contains(lexer.getTokenType())) {
+        Assert.assertEquals("whitespace at " + lexer.getTokenStart(), 0, lexer.getState());
+      }
+      if (lexer.getState() == 0) {
+        final String tail = lex(text, lexer.getTokenStart(), 0);
+        Assert.assertTrue("restart at " + lexer.getTokenStart(), tokens.equals(tail) || tokens.endsWith("\n" + tail));
+        restarts++;
+      }
+    }
+    Assert.assertTrue(restarts > 0);
+  }
+}
@@ -1,12 +1,21 @@
 package org.jetbrains.plugins.clojure.parser;
 
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiErrorElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.tree.IReparseableElementType;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.openapi.fileTypes.FileTypeManager;
 import org.jetbrains.plugins.clojure.ClojureBaseTestCase;
+import org.jetbrains.plugins.clojure.psi.ClojurePsiElement;
+import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
 import org.junit.Test;
 import junit.framework.Assert;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Created by IntelliJ IDEA.
@@ -189,4 +198,86 @@ public class ParserTest extends ClojureBaseTestCase {
     doParse("symbols/sym5");
   }
 
+  public void testUnbalanced() {
+    final String contents = fetchFile("", "unbalanced", TEST_FILE_EXT);
+    final PsiFile psiFile = createPseudoPhysicalFile(getProject(), "test.clj", contents);
+    final List<ASTNode> forms = new ArrayList<ASTNode>();
+    for (ASTNode child = psiFile.getNode().getFirstChildNode(); child != null; child = child.getTreeNext()) {
+      if (child.getPsi() instanceof ClojurePsiElement) forms.add(child);
+    }
+    Assert.assertEquals(5, forms.size());
+
+    final ASTNode broken = forms.get(1);
+    Assert.assertEquals(ClojureElementTypes.DEF, broken.getElementType());
+    Assert.assertTrue(broken.getTextRange().getEndOffset() <= contents.indexOf("\n(defn intact"));
+    Assert.assertFalse(PsiTreeUtil.collectElementsOfType(broken.getPsi(), PsiErrorElement.class).isEmpty());
+
+    final ASTNode intact = forms.get(2);
+    Assert.assertEquals(ClojureElementTypes.DEF, intact.getElementType());
+    Assert.assertEquals("intact", ((ClDef) intact.getPsi()).getName());
+    Assert.assertEquals("(defn intact [z]\n  (* z z))", intact.getText());
+    Assert.assertTrue(PsiTreeUtil.collectElementsOfType(intact.getPsi(), PsiErrorElement.class).isEmpty());
+
+    Assert.assertEquals("(def data #{1 2", forms.get(3).getText());
+    Assert.assertEquals(ClojureElementTypes.DEF, forms.get(4).getElementType());
+    Assert.assertEquals("(def other 3)", forms.get(4).getText());
+  }
+
+  public void testDeeplyNested() {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 5000; i++) builder.append(i % 2 == 0 ? "(f " : "[");
+    for (int i = 4999; i >= 0; i--) builder.append(i % 2 == 0 ? ")" : "]");
+    final PsiFile psiFile = createPseudoPhysicalFile(getProject(), "test.clj", builder.toString());
+    Assert.assertEquals(builder.toString(), psiFile.getText());
+  }
+
+  public void testCollapsedDataLiteral() {
+    final StringBuilder builder = new StringBuilder("(def data {");
+    while (builder.length() < ClojureParser.DATA_LITERAL_THRESHOLD) builder.append(":key [1 \"two\" #{3}]\n");
+    builder.append("})");
+    final PsiFile psiFile = createPseudoPhysicalFile(getProject(), "test.clj", builder.toString());
+    final ASTNode map = psiFile.getNode().getFirstChildNode().findChildByType(ClojureElementTypes.MAP);
+    Assert.assertNotNull(map);
+    Assert.assertTrue(ClojureReparseableElementType.isCollapsed(map));
+    Assert.assertEquals(builder.substring(10, builder.length() - 1), map.getText());
+    Assert.assertNotNull(map.findChildByType(ClojureElementTypes.MAP_ENTRY));
+    Assert.assertFalse(ClojureReparseableElementType.isCollapsed(map));
+  }
+
+  public void testDataLiteralWithList() {
+    final StringBuilder builder = new StringBuilder("(def data {:values [");
+    while (builder.length() < 2 * ClojureParser.DATA_LITERAL_THRESHOLD) builder.append("[1 \"two\" #{3}]\n");
+    builder.append("] :nested [[[(f)]]]})");
+    final PsiFile psiFile = createPseudoPhysicalFile(getProject(), "test.clj", builder.toString());
+    final ASTNode map = psiFile.getNode().getFirstChildNode().findChildByType(ClojureElementTypes.MAP);
+    Assert.assertNotNull(map);
+    Assert.assertFalse(ClojureReparseableElementType.isCollapsed(map));
+    final List<ASTNode> values = new ArrayList<ASTNode>();
+    for (ASTNode entry : map.getChildren(null)) {
+      final ASTNode vector = entry.findChildByType(ClojureElementTypes.VECTOR);
+      if (vector != null) values.add(vector);
+    }
+    Assert.assertEquals(2, values.size());
+    Assert.assertTrue(ClojureReparseableElementType.isCollapsed(values.get(0)));
+    Assert.assertFalse(ClojureReparseableElementType.isCollapsed(values.get(1)));
+    Assert.assertEquals("[[[(f)]]]", values.get(1).getText());
+    Assert.assertEquals(builder.toString(), psiFile.getText());
+  }
+
+  public void testReparseableForms() {
+    final IReparseableElementType list = (IReparseableElementType) ClojureElementTypes.LIST;
+    Assert.assertTrue(list.isParsable("(foo [a b] {:c d} #{e})", getProject()));
+    Assert.assertTrue(list.isParsable("(foo \"(\" ; )\n bar)", getProject()));
+    Assert.assertFalse(list.isParsable("(foo (bar)", getProject()));
+    Assert.assertFalse(list.isParsable("(foo) (bar)", getProject()));
+    Assert.assertFalse(list.isParsable("(foo ')", getProject()));
+    Assert.assertFalse(list.isParsable("(foo ])", getProject()));
+    Assert.assertFalse(list.isParsable("(foo\n(bar))", getProject()));
+    Assert.assertFalse(list.isParsable("(defn foo [])", getProject()));
+    Assert.assertFalse(list.isParsable("( ns foo)", getProject()));
+    Assert.assertTrue(list.isParsable("(defn-x [])", getProject()));
+    Assert.assertTrue(list.isParsable("(def. x)", getProject()));
+    Assert.assertFalse(((IReparseableElementType) ClojureElementTypes.VECTOR).isParsable("(a)", getProject()));
+  }
+
 }
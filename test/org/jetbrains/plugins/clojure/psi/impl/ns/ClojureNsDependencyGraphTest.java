@@ -0,0 +1,45 @@
+package org.jetbrains.plugins.clojure.psi.impl.ns;
+
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsDependencyIndex.Dependency;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsDependencyIndex.Kind;
+import org.jetbrains.plugins.clojure.resolve.ClojureResolveTestCaseBase;
+import org.jetbrains.plugins.clojure.util.TestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * app.b and app.c require each other, app.a requires the cycle, app.d requires app.a, app.f requires app.d and itself
+ */
+public class ClojureNsDependencyGraphTest extends ClojureResolveTestCaseBase {
+
+  @Override
+  public String getTestDataPath() {
+    return TestUtils.getTestDataPath() + "/nsGraph/";
+  }
+
+  private ClojureNsDependencyGraph getGraph() {
+    return ClojureNsDependencyGraph.getInstance(getProject());
+  }
+
+  public void testCycle() throws Exception {
+    // library namespaces are in the order as well
+    final List<String> order = new ArrayList<String>();
+    for (String ns : getGraph().getTopologicalOrder()) {
+      if (ns.startsWith("app.")) order.add(ns);
+    }
+    assertEquals(Arrays.asList("app.b", "app.c", "app.a", "app.d", "app.e", "app.f"), order);
+
+    assertEquals(new HashSet<String>(Arrays.asList("app.a", "app.c")), getGraph().getDependentNamespaces("app.b"));
+    assertEquals(new HashSet<String>(Arrays.asList("app.f")), getGraph().getDependentNamespaces("app.d"));
+    assertTrue(getGraph().getDependentNamespaces("app.f").isEmpty());
+    assertTrue(getGraph().getDependentNamespaces("app.e").isEmpty());
+
+    assertEquals(new HashSet<String>(Arrays.asList("app.a", "clojure.string")), getGraph().getRequiredNamespaces("app.d"));
+    assertEquals(new HashSet<Dependency>(Arrays.asList(new Dependency(Kind.REQUIRE, "app.a"),
+        new Dependency(Kind.REQUIRE, "clojure.string"), new Dependency(Kind.IMPORT, "java.io.File"))),
+        getGraph().getDependencies("app.d"));
+  }
+}
@@ -0,0 +1,78 @@
+package org.jetbrains.plugins.clojure.psi.stubs.index;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dependencies are described as "KIND target" in the order of the ns form, aliases as "alias=namespace"
+ */
+public class ClojureNsDependencyIndexTest extends TestCase {
+
+  private static List<Object> readClauses(String text) {
+    final List<ClojureNsFormReader.NsForm> forms = ClojureNsFormReader.read(text);
+    Assert.assertEquals(1, forms.size());
+    return forms.get(0).getClauses();
+  }
+
+  private static void doTest(String text, String expectedDependencies, String expectedAliases) {
+    final List<Object> clauses = readClauses(text);
+    Assert.assertEquals(expectedDependencies, ClojureNsDependencyIndex.findDependencies(clauses).toString());
+    final Map<String, String> aliases = ClojureNsDependencyIndex.findAliases(clauses);
+    Assert.assertEquals(expectedAliases, new TreeMap<String, String>(aliases).toString());
+  }
+
+  public void testSymbols() {
+    doTest("(ns app.core (:require clojure.string clojure.set) (:use clojure.walk))",
+        "[REQUIRE clojure.string, REQUIRE clojure.set, USE clojure.walk]",
+        "{}");
+  }
+
+  public void testLibSpecs() {
+    doTest("(ns app.core\n" +
+        "  (:require [clojure.string :as str] [clojure.java.io :as io :refer [file]])\n" +
+        "  (:use [clojure.set :only (union)] [clojure.walk :as w :only [walk]]))",
+        "[REQUIRE clojure.string, REQUIRE clojure.java.io, USE clojure.set, USE clojure.walk]",
+        "{io=clojure.java.io, str=clojure.string, w=clojure.walk}");
+  }
+
+  public void testPrefixLists() {
+    doTest("(ns app.core (:require (a b c)) (:use (clojure set [walk :only (walk)])))",
+        "[REQUIRE a.b, REQUIRE a.c, USE clojure.set, USE clojure.walk]",
+        "{}");
+  }
+
+  public void testNestedVectorPrefixList() {
+    doTest("(ns app.core (:require [clojure [string :as s] [set :as set]] [app util]))",
+        "[REQUIRE clojure.string, REQUIRE clojure.set, REQUIRE app.util]",
+        "{s=clojure.string, set=clojure.set}");
+  }
+
+  public void testFlags() {
+    // flags apply to the whole clause and name no namespace
+    doTest("(ns app.core (:require clojure.string [clojure.set :as s :reload] :reload-all) (:use :verbose clojure.walk))",
+        "[REQUIRE clojure.string, REQUIRE clojure.set, USE clojure.walk]",
+        "{s=clojure.set}");
+  }
+
+  public void testImports() {
+    doTest("(ns app.core (:import java.io.File (java.util Date List) [java.net URI URL]))",
+        "[IMPORT java.io.File, IMPORT java.util.Date, IMPORT java.util.List, IMPORT java.net.URI, IMPORT java.net.URL]",
+        "{}");
+  }
+
+  public void testReferClojure() {
+    doTest("(ns app.core (:refer-clojure :exclude [map]) (:require app.util))",
+        "[REFER clojure.core, REQUIRE app.util]",
+        "{}");
+  }
+
+  public void testOtherClauses() {
+    doTest("(ns app.core \"Docstring\" {:author \"me\"} (:gen-class) (:load \"extra\") (:require))",
+        "[]",
+        "{}");
+  }
+}
@@ -1,15 +1,29 @@
 package org.jetbrains.plugins.clojure.resolve;
 
 import com.intellij.openapi.module.Module;
+import com.intellij.psi.CommonClassNames;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiMethod;
+import com.intellij.psi.PsiPolyVariantReference;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.ResolveResult;
 import com.intellij.psi.impl.source.resolve.reference.impl.PsiMultiReference;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.plugins.clojure.psi.api.ClList;
+import org.jetbrains.plugins.clojure.psi.api.ClMap;
 import org.jetbrains.plugins.clojure.psi.api.defs.ClDef;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.impl.list.ListDeclarations;
 import org.jetbrains.plugins.clojure.psi.impl.ns.ClSyntheticNamespace;
+import org.jetbrains.plugins.clojure.psi.resolve.ClojureUnresolvedNameCache;
 import org.jetbrains.plugins.clojure.util.TestUtils;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * @author ilyas
  */
@@ -50,6 +64,139 @@ public class ClojureResolveSymbolTest extends ClojureResolveTestCaseBase {
     assertTrue("trace-fn-call".equals(((ClDef) element).getName()));
   }
 
+  public void testInNsSymbol() throws Exception {
+    final PsiElement element = resolveReference();
+    assertTrue(element instanceof ClDef);
+    assertTrue("helper".equals(((ClDef) element).getName()));
+  }
+
+  public void testDestructuredLocal() throws Exception {
+    final PsiElement element = resolveReference();
+    assertTrue(element instanceof ClSymbol);
+    assertEquals("height", element.getText());
+    assertNotNull(PsiTreeUtil.getParentOfType(element, ClMap.class));
+  }
+
+  public void testShadowedLocal() throws Exception {
+    final PsiElement element = resolveReference();
+    assertTrue(element instanceof ClSymbol);
+    final ClList list = PsiTreeUtil.getParentOfType(element, ClList.class);
+    assertNotNull(list);
+    assertEquals(ListDeclarations.LET, list.getHeadText());
+  }
+
+  public void testHintedMethod() throws Exception {
+    final PsiElement element = resolveReference();
+    assertTrue(element instanceof PsiMethod);
+    final PsiClass clazz = ((PsiMethod) element).getContainingClass();
+    assertNotNull(clazz);
+    assertEquals(CommonClassNames.JAVA_LANG_STRING, clazz.getQualifiedName());
+  }
+
+  public void testObjectHintedMethod() throws Exception {
+    // Object says nothing about the receiver, so all the visible classes are looked through
+    final Set<String> classes = resolveMethodClasses("toUpperCase");
+    assertTrue(classes.contains(CommonClassNames.JAVA_LANG_STRING));
+  }
+
+  public void testMissingHintedMethod() throws Exception {
+    // String has no intValue, so the hint is ignored
+    final Set<String> classes = resolveMethodClasses("intValue");
+    assertFalse(classes.isEmpty());
+    assertFalse(classes.contains(CommonClassNames.JAVA_LANG_STRING));
+  }
+
+  private Set<String> resolveMethodClasses(String name) throws Exception {
+    final PsiReference reference = configureByFile(commonTestFile());
+    assertTrue(reference instanceof PsiPolyVariantReference);
+    final Set<String> classes = new HashSet<String>();
+    for (ResolveResult result : ((PsiPolyVariantReference) reference).multiResolve(false)) {
+      assertTrue(result.getElement() instanceof PsiMethod);
+      final PsiMethod method = (PsiMethod) result.getElement();
+      assertEquals(name, method.getName());
+      final PsiClass clazz = method.getContainingClass();
+      assertNotNull(clazz);
+      classes.add(clazz.getQualifiedName());
+    }
+    return classes;
+  }
+
+  public void testDefAfterPlace() throws Exception {
+    final PsiReference reference = configureByFile(commonTestFile());
+    assertNull(reference.resolve());
+  }
+
+  public void testDuplicateDef() throws Exception {
+    final PsiReference reference = configureByFile(commonTestFile());
+    assertTrue(reference instanceof PsiPolyVariantReference);
+    final ResolveResult[] results = ((PsiPolyVariantReference) reference).multiResolve(false);
+    assertEquals(2, results.length);
+    final Set<String> texts = new HashSet<String>();
+    for (ResolveResult result : results) {
+      assertTrue(result.getElement() instanceof ClDef);
+      texts.add(result.getElement().getText());
+    }
+    assertEquals(new HashSet<String>(Arrays.asList("(def value 1)", "(def value 2)")), texts);
+  }
+
+  private static ClSymbol findSymbol(PsiFile file, String context, String name) {
+    final int offset = file.getText().indexOf(context) + context.lastIndexOf(name);
+    final ClSymbol symbol = PsiTreeUtil.getParentOfType(file.findElementAt(offset), ClSymbol.class, false);
+    assertNotNull(symbol);
+    assertEquals(name, symbol.getText());
+    return symbol;
+  }
+
+  private ClSymbol configureSymbol(String name) throws Exception {
+    final PsiReference reference = configureByFile(commonTestFile());
+    final ClSymbol symbol = PsiTreeUtil.getParentOfType(reference.getElement(), ClSymbol.class, false);
+    assertNotNull(symbol);
+    assertEquals(name, symbol.getText());
+    return symbol;
+  }
+
+  private ClSymbol configureMiss(String name) throws Exception {
+    final ClSymbol symbol = configureSymbol(name);
+    assertNull(symbol.resolve());
+    assertTrue(ClojureUnresolvedNameCache.getInstance(getProject()).isUnresolvedAtFileLevel(name));
+    return symbol;
+  }
+
+  public void testMissThenDefinition() throws Exception {
+    final ClSymbol symbol = configureMiss("fresh-helper");
+    // any PSI change drops the remembered misses
+    createFile(myModule, myFile.getVirtualFile().getParent(), "core_ext.clj",
+        "(ns clojure.core)\n\n(defn fresh-helper [x]\n  x)\n");
+    final PsiElement element = symbol.resolve();
+    assertTrue(element instanceof ClDef);
+    assertEquals("fresh-helper", ((ClDef) element).getName());
+  }
+
+  public void testMissThenClass() throws Exception {
+    final ClSymbol symbol = configureMiss("FreshWidget");
+    createFile(myModule, myFile.getVirtualFile().getParent(), "FreshWidget.java", "public class FreshWidget {}\n");
+    final PsiElement element = symbol.resolve();
+    assertTrue(element instanceof PsiClass);
+    assertEquals("FreshWidget", ((PsiClass) element).getQualifiedName());
+  }
+
+  public void testMissedNameDefinedBefore() throws Exception {
+    final ClSymbol symbol = configureSymbol("helper");
+    // the name is missed in a file of another namespace first
+    final PsiFile other = createFile(myModule, myFile.getVirtualFile().getParent(), "other.clj",
+        "(ns other)\n\n(defn run []\n  (helper 1))\n");
+    assertNull(findSymbol(other, "(helper 1)", "helper").resolve());
+    assertTrue(ClojureUnresolvedNameCache.getInstance(getProject()).isUnresolvedAtFileLevel("helper"));
+
+    final PsiElement element = symbol.resolve();
+    assertTrue(element instanceof ClDef);
+    assertEquals("helper", ((ClDef) element).getName());
+
+    final PsiElement local = findSymbol(myFile, "(fn [helper] helper)", "helper").resolve();
+    assertTrue(local instanceof ClSymbol);
+    assertEquals("[helper]", local.getParent().getText());
+  }
+
   public void testJavaClass() throws Exception {
     final PsiReference reference = configureByFile(commonTestFile());
     if (reference instanceof PsiMultiReference) {
@@ -0,0 +1,127 @@
+package org.jetbrains.plugins.clojure.scaling;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.plugins.clojure.psi.impl.ns.ClojureNsDependencyGraph;
+import org.jetbrains.plugins.clojure.psi.impl.ns.NamespaceUtil;
+import org.jetbrains.plugins.clojure.psi.api.symbols.ClSymbol;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClDefNameIndex;
+import org.jetbrains.plugins.clojure.psi.stubs.index.ClojureNsNameIndex;
+import org.jetbrains.plugins.clojure.resolve.ClojureResolveTestCaseBase;
+import org.jetbrains.plugins.clojure.util.SyntheticProjectGenerator;
+import org.jetbrains.plugins.clojure.util.TestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Checks stub indexes, NamespaceUtil, the dependency graph and resolve on generated projects of growing size,
+ * costs on the same projects are measured by ProjectScalingBenchmark. Generating them takes long,
+ * so the tests are skipped, project set up included, unless -Dclojure.scaling.large=true is given.
+ */
+public class ClojureScalingTest extends ClojureResolveTestCaseBase {
+
+  private static final String LARGE_PROPERTY = "clojure.scaling.large";
+  private static final int SAMPLE_FILES = 20;
+
+  private SyntheticProjectGenerator myGenerator;
+  private List<File> myFiles;
+  private File myRoot;
+
+  @Override
+  public void runBare() throws Throwable {
+    if (Boolean.getBoolean(LARGE_PROPERTY)) {
+      super.runBare();
+    }
+  }
+
+  @Override
+  public String getTestDataPath() {
+    return TestUtils.getTestDataPath();
+  }
+
+  @Override
+  public String getTestFolderPath() {
+    final int size = Integer.parseInt(getName().substring("testNamespaces".length()));
+    myGenerator = new SyntheticProjectGenerator().setNamespaces(size);
+    try {
+      myRoot = FileUtil.createTempDirectory("clojure-scaling", null);
+      myFiles = myGenerator.generate(myRoot);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return myRoot.getPath();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    super.tearDown();
+    FileUtil.delete(myRoot);
+  }
+
+  public void testNamespaces100() throws Exception {
+    doTest();
+  }
+
+  public void testNamespaces1000() throws Exception {
+    doTest();
+  }
+
+  public void testNamespaces9000() throws Exception {
+    doTest();
+  }
+
+  private void doTest() {
+    final int count = myGenerator.getNamespaces();
+    final Project project = getProject();
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+
+    final Collection<String> nsNames = StubIndex.getInstance().getAllKeys(ClojureNsNameIndex.KEY, project);
+    for (int i = 0; i < count; i++) {
+      assertTrue(nsNames.contains(myGenerator.getNamespaceName(i)));
+    }
+
+    for (int i = 0; i < count; i++) {
+      assertEquals(1, StubIndex.getInstance().get(ClojureNsNameIndex.KEY, myGenerator.getNamespaceName(i), project, scope).size());
+      assertEquals(1, StubIndex.getInstance().get(ClDefNameIndex.KEY, myGenerator.getDefName(i, 0), project, scope).size());
+    }
+
+    final int step = Math.max(1, count / SAMPLE_FILES);
+    assertTrue(NamespaceUtil.getTopLevelNamespaces(project).length > 0);
+    for (int i = 0; i < count; i += step) {
+      assertEquals(myGenerator.getDefs(), NamespaceUtil.getDeclaredElements(myGenerator.getNamespaceName(i), project).length);
+    }
+
+    final ClojureNsDependencyGraph graph = ClojureNsDependencyGraph.getInstance(project);
+    final List<String> order = graph.getTopologicalOrder();
+    assertEquals(count, order.size());
+    for (int i = 0; i < count; i += step) {
+      final String ns = myGenerator.getNamespaceName(i);
+      for (String required : graph.getRequiredNamespaces(ns)) {
+        assertTrue(graph.getDependentNamespaces(required).contains(ns));
+        assertTrue(order.indexOf(required) < order.indexOf(ns));
+      }
+    }
+
+    int resolved = 0;
+    for (int i = 0; i < count; i += step) {
+      final VirtualFile vFile = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(myFiles.get(i));
+      assertNotNull(vFile);
+      final PsiFile file = PsiManager.getInstance(project).findFile(vFile);
+      assertNotNull(file);
+      for (ClSymbol symbol : PsiTreeUtil.collectElementsOfType(file, ClSymbol.class)) {
+        if (symbol.multiResolve(false).length > 0) resolved++;
+      }
+    }
+    assertTrue(resolved > 0);
+  }
+}
@@ -0,0 +1,187 @@
+package org.jetbrains.plugins.clojure.util;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic Clojure project: namespaces, which require and use each other, import Java classes
+ * and refer to definitions of each other. Namespaces refer only to namespaces with lesser number,
+ * so the dependency graph has no cycles.
+ */
+public class SyntheticProjectGenerator {
+
+  private static final String ROOT_NS = "synth";
+  private static final String[] JAVA_CLASSES = {
+      "java.util.ArrayList", "java.util.HashMap", "java.io.File", "java.util.regex.Pattern",
+      "java.net.URL", "java.util.Date", "java.lang.StringBuilder", "java.util.LinkedList"
+  };
+
+  private int myNamespaces = 100;
+  private int myRequires = 3;
+  private int myUses = 1;
+  private int myDefs = 10;
+  private int myImports = 2;
+  private int myDepth = 3;
+  private long mySeed = 42;
+
+  public SyntheticProjectGenerator setNamespaces(int count) {
+    myNamespaces = count;
+    return this;
+  }
+
+  /**
+   * @param count number of namespaces in :require clause of each namespace
+   */
+  public SyntheticProjectGenerator setRequires(int count) {
+    myRequires = count;
+    return this;
+  }
+
+  /**
+   * @param count number of namespaces in :use clause of each namespace
+   */
+  public SyntheticProjectGenerator setUses(int count) {
+    myUses = count;
+    return this;
+  }
+
+  public SyntheticProjectGenerator setDefs(int count) {
+    myDefs = count;
+    return this;
+  }
+
+  public SyntheticProjectGenerator setImports(int count) {
+    myImports = Math.min(count, JAVA_CLASSES.length);
+    return this;
+  }
+
+  /**
+   * @param depth number of segments in namespace names, e.g. 3 for synth.p4.ns42
+   */
+  public SyntheticProjectGenerator setDepth(int depth) {
+    myDepth = Math.max(2, depth);
+    return this;
+  }
+
+  public SyntheticProjectGenerator setSeed(long seed) {
+    mySeed = seed;
+    return this;
+  }
+
+  public int getNamespaces() {
+    return myNamespaces;
+  }
+
+  public int getDefs() {
+    return myDefs;
+  }
+
+  public String getNamespaceName(int i) {
+    final StringBuilder name = new StringBuilder(ROOT_NS);
+    int rest = i;
+    for (int level = 0; level < myDepth - 2; level++) {
+      name.append(".p").append(rest % 10);
+      rest /= 10;
+    }
+    return name.append(".ns").append(i).toString();
+  }
+
+  public String getDefName(int ns, int def) {
+    return "ns" + ns + "-d" + def;
+  }
+
+  public String getFilePath(int i) {
+    return getNamespaceName(i).replace('.', '/').replace('-', '_') + ".clj";
+  }
+
+  /**
+   * Writes all namespaces of the project under the given source root
+   *
+   * @return generated files
+   */
+  public List<File> generate(File root) throws IOException {
+    final Random random = new Random(mySeed);
+    final List<File> files = new ArrayList<File>();
+    for (int i = 0; i < myNamespaces; i++) {
+      final File file = new File(root, getFilePath(i));
+      FileUtil.createParentDirs(file);
+      FileUtil.writeToFile(file, generateNamespace(i, random).getBytes());
+      files.add(file);
+    }
+    return files;
+  }
+
+  String generateNamespace(int i, Random random) {
+    final int[] required = pickNamespaces(i, myRequires, random);
+    final int[] used = pickNamespaces(i, myUses, random);
+
+    final StringBuilder text = new StringBuilder();
+    text.append("(ns ").append(getNamespaceName(i));
+    if (required.length > 0) {
+      text.append("\n  (:require");
+      for (int j = 0; j < required.length; j++) {
+        text.append(" [").append(getNamespaceName(required[j])).append(" :as r").append(j).append("]");
+      }
+      text.append(")");
+    }
+    if (used.length > 0) {
+      text.append("\n  (:use");
+      for (int ns : used) {
+        text.append(" ").append(getNamespaceName(ns));
+      }
+      text.append(")");
+    }
+    if (myImports > 0) {
+      text.append("\n  (:import");
+      for (int j = 0; j < myImports; j++) {
+        text.append(" ").append(JAVA_CLASSES[j]);
+      }
+      text.append(")");
+    }
+    text.append(")\n\n");
+
+    for (int d = 0; d < myDefs; d++) {
+      if (d % 2 == 0) {
+        text.append("(defn ").append(getDefName(i, d)).append("\n")
+            .append("  \"Definition ").append(d).append(" of ").append(getNamespaceName(i)).append(".\"\n")
+            .append("  [x & more]\n")
+            .append("  (let [{:keys [a b]} x\n")
+            .append("        v [a b ").append(random.nextInt(100)).append("]]\n")
+            .append("    ").append(generateCall(i, d, required, used, random)).append("))\n\n");
+      } else {
+        text.append("(def ").append(getDefName(i, d)).append(" {:id ").append(d)
+            .append(" :items [1 2 {:nested #{:a :b}}]})\n\n");
+      }
+    }
+    return text.toString();
+  }
+
+  private String generateCall(int ns, int def, int[] required, int[] used, Random random) {
+    final int kind = random.nextInt(4);
+    if (kind == 0 && required.length > 0) {
+      final int j = random.nextInt(required.length);
+      return "(r" + j + "/" + getDefName(required[j], random.nextInt(myDefs)) + " v)";
+    }
+    if (kind == 1 && used.length > 0) {
+      return "(" + getDefName(used[random.nextInt(used.length)], random.nextInt(myDefs)) + " v)";
+    }
+    if (kind == 2 && myImports > 0) {
+      return "(.toString (" + StringUtil.getShortName(JAVA_CLASSES[random.nextInt(myImports)]) + ".))";
+    }
+    return def > 0 ? "(" + getDefName(ns, random.nextInt(def)) + " v)" : "(map inc v)";
+  }
+
+  private int[] pickNamespaces(int ns, int count, Random random) {
+    final int[] result = new int[Math.min(ns, count)];
+    for (int j = 0; j < result.length; j++) {
+      result[j] = random.nextInt(ns);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,5 @@
+(ns app.aliased
+  (:require [app.util :as u]))
+
+(defn f [s]
+  (u/parse-date s))
@@ -0,0 +1,4 @@
+(ns app.full)
+
+(defn g [s]
+  (app.util/parse-date s))
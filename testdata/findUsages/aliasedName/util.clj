@@ -0,0 +1,4 @@
+(ns app.util)
+
+(defn parse-date [s]
+  s)
@@ -0,0 +1,7 @@
+(ns app.decoy)
+
+(defn get-user [id]
+  id)
+
+(defn by-id [id]
+  (get-user id))
@@ -0,0 +1,4 @@
+(ns app.handler)
+
+(defn handle [request]
+  (app.users/get-user-by-id (:id request)))
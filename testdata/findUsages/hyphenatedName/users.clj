@@ -0,0 +1,7 @@
+(ns app.users)
+
+(defn get-user-by-id [id]
+  {:id id})
+
+(defn load-user [id]
+  (get-user-by-id id))
@@ -0,0 +1,15 @@
+(ns app.first
+  (:require [app.util :as u]))
+
+(defn a [s]
+  (u/parse-date s))
+
+(in-ns 'app.second)
+
+(defn b [s]
+  (u/parse-date s))
+
+(in-ns 'app.first)
+
+(defn c [s]
+  (u/parse-date s))
@@ -0,0 +1,7 @@
+(ns app.hint)
+
+(defn shout [s]
+  (.toUpperCase s))
+
+(defn language [l]
+  (.getLanguage l))
@@ -0,0 +1,14 @@
+(ns app.hinted)
+
+(defn shout [^String s]
+  (.toUpperCase s))
+
+(defn size [^String s]
+  (. s length))
+
+(defn shout-local [s]
+  (let [^String t s]
+    (.toUpperCase t)))
+
+(defn parent-path [^java.io.File f]
+  (.. f (getParentFile) (getPath)))
@@ -0,0 +1,14 @@
+(ns app.literals)
+
+(defn shout []
+  (.toUpperCase "abc"))
+
+(defn shout-local []
+  (let [s "abc"]
+    (.toUpperCase s)))
+
+(defn number []
+  (.doubleValue 1.5))
+
+(defn magnitude []
+  (Math/abs 1))
@@ -0,0 +1,10 @@
+(ns app.missing)
+
+(defn shout [^Object s]
+  (.toUpperCase s))
+
+(defn value [^String s]
+  (.intValue s))
+
+(defn size [^String s]
+  (.length s 1))
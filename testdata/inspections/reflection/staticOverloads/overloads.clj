@@ -0,0 +1,13 @@
+(ns app.overloads)
+
+(defn magnitude [x]
+  (Math/abs x))
+
+(defn text [x]
+  (String/valueOf x))
+
+(defn known [x]
+  (Math/abs 1))
+
+(defn single [s]
+  (Integer/valueOf s 10))
@@ -0,0 +1,10 @@
+(ns app.unhinted)
+
+(defn shout [s]
+  (.toUpperCase s))
+
+(defn size [s]
+  (. s (length)))
+
+(defn path [x]
+  (.. x (getParentFile) (getPath)))
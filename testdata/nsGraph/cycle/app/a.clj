@@ -0,0 +1,2 @@
+(ns app.a
+  (:require app.b))
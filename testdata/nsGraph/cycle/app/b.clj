@@ -0,0 +1,2 @@
+(ns app.b
+  (:require [app.c :as c]))
@@ -0,0 +1,2 @@
+(ns app.c
+  (:use app.b))
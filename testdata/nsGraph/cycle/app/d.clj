@@ -0,0 +1,3 @@
+(ns app.d
+  (:require app.a [clojure.string :as str])
+  (:import java.io.File))
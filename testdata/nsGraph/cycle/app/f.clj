@@ -0,0 +1,2 @@
+(ns app.f
+  (:require app.d app.f))
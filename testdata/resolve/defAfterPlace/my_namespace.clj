@@ -0,0 +1,7 @@
+(ns my-namespace)
+
+(defn caller [x]
+  (<ref>later x))
+
+(defn later [y]
+  y)
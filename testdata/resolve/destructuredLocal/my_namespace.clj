@@ -0,0 +1,5 @@
+(ns my-namespace)
+
+(defn area [{:keys [width height] :as rect}]
+  (let [[x y & more] (:origin rect)]
+    (* <ref>height width)))
@@ -0,0 +1,8 @@
+(ns my-namespace)
+
+(def value 1)
+
+(def value 2)
+
+(defn current []
+  <ref>value)
@@ -0,0 +1,4 @@
+(ns my-namespace)
+
+(defn size [^String s]
+  (.<ref>length s))
@@ -0,0 +1,9 @@
+(ns my-namespace)
+
+(in-ns 'my-namespace.impl)
+
+(defn helper [x] x)
+
+(in-ns 'my-namespace)
+
+(my-namespace.impl/<ref>helper "abc")
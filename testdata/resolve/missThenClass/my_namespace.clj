@@ -0,0 +1,4 @@
+(ns my-namespace)
+
+(defn describe []
+  (str <ref>FreshWidget))
@@ -0,0 +1,4 @@
+(ns my-namespace)
+
+(defn caller [x]
+  (<ref>fresh-helper x))
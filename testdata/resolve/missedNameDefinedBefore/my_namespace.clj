@@ -0,0 +1,8 @@
+(ns my-namespace)
+
+(defn helper [x]
+  x)
+
+(defn caller [y]
+  (let [f (fn [helper] helper)]
+    (<ref>helper (f y))))
@@ -0,0 +1,4 @@
+(ns my-namespace)
+
+(defn value [^String s]
+  (.<ref>intValue s))
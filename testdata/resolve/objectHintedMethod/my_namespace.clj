@@ -0,0 +1,4 @@
+(ns my-namespace)
+
+(defn shout [^Object s]
+  (.<ref>toUpperCase s))
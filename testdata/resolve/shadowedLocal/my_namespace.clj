@@ -0,0 +1,5 @@
+(ns my-namespace)
+
+(defn next-value [x]
+  (let [x (inc x)]
+    (str <ref>x)))